@@ -12,5 +12,6 @@ public record BookingResponse(
         String bookableItemName,
         BookableItemType bookableItemType,
         LocalDateTime bookingDate,
-        BookingStatus status
+        BookingStatus status,
+        Double price // Price locked in when the booking was made
 ) {}
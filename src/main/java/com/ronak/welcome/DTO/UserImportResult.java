@@ -0,0 +1,15 @@
+package com.ronak.welcome.DTO;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ * @param errors Per-row failures, capped at app.users.import.max-reported-errors; {@code failed} is always exact.
+ */
+public record UserImportResult(long processed, long imported, long failed, List<RowError> errors) {
+
+    /**
+     * @param row 1-based record number in the upload (excluding the CSV header).
+     */
+    public record RowError(long row, String username, String message) {}
+}
@@ -0,0 +1,27 @@
+package com.ronak.welcome.DTO;
+
+import com.ronak.welcome.enums.AddressType;
+import com.ronak.welcome.enums.Role;
+
+import java.util.Set;
+
+/**
+ * One user of a bulk import, read from an NDJSON line or a CSV record.
+ * The address fields are optional; when present, city, state and country are all required.
+ */
+public record UserImportRow(
+        String username,
+        String email,
+        String password,
+        Set<Role> roles,
+        String street,
+        String zipCode,
+        AddressType addressType,
+        String city,
+        String state,
+        String country
+) {
+    public boolean hasAddress() {
+        return city != null && !city.isBlank();
+    }
+}
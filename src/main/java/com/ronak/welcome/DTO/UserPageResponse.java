@@ -0,0 +1,9 @@
+package com.ronak.welcome.DTO;
+
+import java.util.List;
+
+/**
+ * One page of users, ordered by ID.
+ * @param nextCursor Pass as {@code after} to fetch the next page; null when this is the last page.
+ */
+public record UserPageResponse(List<UserResponse> users, Long nextCursor) {}
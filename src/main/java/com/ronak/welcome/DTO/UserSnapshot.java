@@ -0,0 +1,43 @@
+package com.ronak.welcome.DTO;
+
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable, detached copy of the User fields needed for authentication and authorization checks.
+ * Safe to cache and share between threads, unlike the User entity.
+ * Code that needs a User for an association should use {@code userRepository.getReferenceById(id())}.
+ */
+public record UserSnapshot(
+        Long id,
+        String username,
+        String email,
+        String password,
+        Set<Role> roles,
+        String totpSecret,
+        boolean totpEnabled,
+        long tokenVersion
+) {
+    public static UserSnapshot of(User user) {
+        Set<Role> roles = user.getRoles() == null || user.getRoles().isEmpty()
+                ? Set.of()
+                : Set.copyOf(EnumSet.copyOf(user.getRoles()));
+        return new UserSnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                roles,
+                user.getTotpSecret(),
+                user.isTotpEnabled(),
+                user.getTokenVersion()
+        );
+    }
+
+    public boolean hasRole(Role role) {
+        return roles.contains(role);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ronak.welcome.config;
+
+import com.ronak.welcome.service.BucketStore;
+import com.ronak.welcome.service.impl.DistributedBucketStore;
+import com.ronak.welcome.service.impl.InMemoryBucketProxyManager;
+import com.ronak.welcome.service.impl.JdbcBucketProxyManager;
+import com.ronak.welcome.service.impl.LocalBucketStore;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Selects where rate-limit bucket state lives, via app.rate-limit.backend:
+ * <ul>
+ *     <li>local (default): per-instance buckets; the effective limit scales with the number of instances.</li>
+ *     <li>jdbc: buckets shared through the rate_limit_buckets table, so the limit is cluster-wide.</li>
+ *     <li>memory: the distributed code path backed by an in-process map (single node, tests).</li>
+ * </ul>
+ *
+ * TOTP attempts are throttled through a separate "totpAttemptStore" on the same backend. Its buckets are only
+ * dropped after sitting idle, never to make room, so a flood of new clients cannot reset a user's remaining
+ * guesses, and a shared backend is consulted on every attempt.
+ */
+@Configuration
+public class RateLimitBackendConfiguration {
+
+    private static final String TOTP_ATTEMPT_BUCKETS = "totpAttemptBuckets";
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${app.rate-limit.idle-eviction-seconds:600}")
+    private long idleEvictionSeconds;
+
+    @Value("${app.rate-limit.sync.max-unsynchronized-tokens:10}")
+    private long maxUnsynchronizedTokens; // 0 = synchronize with the backend on every request
+
+    @Value("${app.rate-limit.sync.max-unsynchronized-millis:500}")
+    private long maxUnsynchronizedMillis;
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+    public BucketStore localBucketStore(MeterRegistry meterRegistry) {
+        return new LocalBucketStore(maxBuckets, Duration.ofSeconds(idleEvictionSeconds), meterRegistry);
+    }
+
+    @Bean("totpAttemptStore")
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+    public BucketStore localTotpAttemptStore(MeterRegistry meterRegistry) {
+        return new LocalBucketStore(0, Duration.ofSeconds(idleEvictionSeconds), TOTP_ATTEMPT_BUCKETS, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+    public JdbcBucketProxyManager jdbcBucketProxyManager(JdbcTemplate jdbcTemplate) {
+        return new JdbcBucketProxyManager(jdbcTemplate, Duration.ofSeconds(idleEvictionSeconds).toMillis());
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+    public BucketStore jdbcBucketStore(JdbcBucketProxyManager proxyManager, MeterRegistry meterRegistry) {
+        return distributedStore(proxyManager, meterRegistry);
+    }
+
+    @Bean("totpAttemptStore")
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+    public BucketStore jdbcTotpAttemptStore(JdbcBucketProxyManager proxyManager, MeterRegistry meterRegistry) {
+        return totpAttemptStore(proxyManager, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory")
+    public BucketStore inMemoryBucketStore(MeterRegistry meterRegistry) {
+        return distributedStore(new InMemoryBucketProxyManager(), meterRegistry);
+    }
+
+    @Bean("totpAttemptStore")
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory")
+    public BucketStore inMemoryTotpAttemptStore(MeterRegistry meterRegistry) {
+        return totpAttemptStore(new InMemoryBucketProxyManager(), meterRegistry);
+    }
+
+    private DistributedBucketStore distributedStore(ProxyManager<String> proxyManager,
+                                                    MeterRegistry meterRegistry) {
+        return new DistributedBucketStore(
+                proxyManager,
+                maxUnsynchronizedTokens,
+                Duration.ofMillis(maxUnsynchronizedMillis),
+                maxBuckets,
+                Duration.ofSeconds(idleEvictionSeconds),
+                meterRegistry);
+    }
+
+    // Synchronizes on every attempt, so running more instances does not allow more guesses
+    private DistributedBucketStore totpAttemptStore(ProxyManager<String> proxyManager, MeterRegistry meterRegistry) {
+        return new DistributedBucketStore(proxyManager, 0, Duration.ZERO, 0, Duration.ofSeconds(idleEvictionSeconds),
+                TOTP_ATTEMPT_BUCKETS, meterRegistry);
+    }
+}
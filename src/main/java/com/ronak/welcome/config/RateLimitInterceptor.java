@@ -1,36 +1,69 @@
 // src/main/java/com/ronak/welcome/config/RateLimitInterceptor.java
 package com.ronak.welcome.config;
 
+import com.ronak.welcome.enums.Role;
 import com.ronak.welcome.service.impl.RateLimiterService; // Import your RateLimiterService
+import com.ronak.welcome.util.RouteCostTrie;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
     private final RateLimiterService rateLimiterService;
+    private final RouteCostTrie routeCosts;
+    private final boolean userKeys;
 
-    public RateLimitInterceptor(RateLimiterService rateLimiterService) {
+    public RateLimitInterceptor(RateLimiterService rateLimiterService, RateLimitPolicyProperties policyProperties) {
         this.rateLimiterService = rateLimiterService;
+        this.userKeys = policyProperties.isUserKeys();
+
+        Map<String, Integer> costs = new LinkedHashMap<>();
+        for (RateLimitPolicyProperties.RoutePolicy route : policyProperties.getRoutes()) {
+            costs.put(route.getPattern(), route.getCost());
+        }
+        this.routeCosts = new RouteCostTrie(costs, policyProperties.getDefaultCost());
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // Get client identifier (e.g., IP address)
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // An async handler (e.g. login) completes on a second dispatch of the same request, which was
+            // already charged; charging again could reject a request whose work has already been done
+            return true;
+        }
+        int cost = routeCosts.costFor(request.getRequestURI());
+        if (cost <= 0) {
+            return true; // Route is exempt from rate limiting
+        }
+
+        // Authenticated users get their own bucket (with their role's tier), so clients behind a shared
+        // NAT or proxy don't exhaust each other's limits. Anonymous requests fall back to the IP address.
         // In a real production environment, if you are behind a load balancer or proxy,
         // you would typically use the "X-Forwarded-For" header to get the real client IP.
-        // For local development, getRemoteAddr() is usually sufficient.
-        String clientId = request.getRemoteAddr();
-
-        // If you want to rate limit by authenticated user ID instead of IP, you would use:
-        // Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        // String clientId = (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getName()))
-        //                   ? authentication.getName() : request.getRemoteAddr();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String clientKey;
+        Role tier = null;
+        if (userKeys && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            tier = highestRole(authentication);
+            clientKey = "user:" + authentication.getName();
+        } else {
+            clientKey = "ip:" + request.getRemoteAddr();
+        }
 
-        if (rateLimiterService.tryConsumeToken(clientId)) {
+        if (rateLimiterService.tryConsumeTokens(clientKey, tier, cost)) {
             return true; // Request allowed to proceed
         } else {
             // Request rate-limited: set 429 status and send a message
@@ -39,4 +72,19 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return false; // Request blocked
         }
     }
+
+    private Role highestRole(Authentication authentication) {
+        Role highest = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if ("ROLE_ADMIN".equals(name)) {
+                return Role.ADMIN;
+            } else if ("ROLE_EVENT_ORGANIZER".equals(name)) {
+                highest = Role.EVENT_ORGANIZER;
+            } else if ("ROLE_USER".equals(name) && highest == null) {
+                highest = Role.USER;
+            }
+        }
+        return highest;
+    }
 }
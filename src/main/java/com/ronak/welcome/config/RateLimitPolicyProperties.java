@@ -0,0 +1,50 @@
+package com.ronak.welcome.config;
+
+import com.ronak.welcome.enums.Role;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limit policy: how many tokens each route costs and which bucket limits apply per role.
+ * Anonymous clients (and roles without a tier) use the base app.rate-limit.capacity / refill-rate settings.
+ *
+ * Example:
+ * <pre>
+ * app.rate-limit.policy.routes[0].pattern=/api/v1/items/search
+ * app.rate-limit.policy.routes[0].cost=5
+ * app.rate-limit.policy.routes[1].pattern=/actuator/**
+ * app.rate-limit.policy.routes[1].cost=0
+ * app.rate-limit.policy.tiers.ADMIN.capacity=1000
+ * app.rate-limit.policy.tiers.ADMIN.refill-rate=100
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit.policy")
+public class RateLimitPolicyProperties {
+
+    private int defaultCost = 1; // Tokens consumed by routes that match no pattern
+
+    private boolean userKeys = true; // Key buckets by authenticated username, falling back to the client IP
+
+    private List<RoutePolicy> routes = new ArrayList<>();
+
+    private Map<Role, Tier> tiers = new EnumMap<>(Role.class);
+
+    @Data
+    public static class RoutePolicy {
+        private String pattern;
+        private int cost = 1; // 0 exempts the route from rate limiting
+    }
+
+    @Data
+    public static class Tier {
+        private long capacity;
+        private long refillRate;
+        private long durationSeconds = 1;
+    }
+}
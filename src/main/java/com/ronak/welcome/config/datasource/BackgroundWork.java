@@ -0,0 +1,18 @@
+package com.ronak.welcome.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method (or every public method of the annotated class) on the background connection pool.
+ * Applies to all database work done on the calling thread until the method returns, including transactions
+ * it starts.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BackgroundWork {
+}
@@ -0,0 +1,27 @@
+package com.ronak.welcome.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the current thread as doing {@link Workload#BACKGROUND} work for the duration of a
+ * {@link BackgroundWork} method. Connections are fetched lazily, so it does not matter whether this runs
+ * inside or outside the method's transaction.
+ */
+@Aspect
+@Component
+public class BackgroundWorkAspect {
+
+    @Around("@annotation(com.ronak.welcome.config.datasource.BackgroundWork) " +
+            "|| @within(com.ronak.welcome.config.datasource.BackgroundWork)")
+    public Object runAsBackground(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadRoutingDataSource.bind(Workload.BACKGROUND);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.bind(previous);
+        }
+    }
+}
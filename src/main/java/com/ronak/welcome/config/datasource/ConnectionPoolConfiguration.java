@@ -0,0 +1,90 @@
+package com.ronak.welcome.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * One Hikari pool per {@link Workload} on the primary database, so a slow outbox batch or a burst of catalog
+ * searches cannot take the connections booking requests need.
+ *
+ * All pools connect with the spring.datasource.url / username / password settings. Each pool is tuned under
+ * app.datasource.pools.&lt;oltp|catalog|background&gt;.* with any HikariConfig property; the defaults below give
+ * request-path pools short connection timeouts (fail fast rather than queue) and the background pool a long
+ * one, with leak detection on all three. Pool usage, wait time (hikaricp.connections.acquire), pending threads
+ * and timeouts are exported per pool name.
+ *
+ * The default sizes (oltp 5, catalog 3, background 2) add up to the 10 connections a single Hikari pool had
+ * before the split. Every instance opens the sum of all three maximum-pool-size values, plus the replica pool
+ * when one is configured, so raise them with the database's max_connections divided by the instance count in mind.
+ *
+ * Example:
+ * <pre>
+ * app.datasource.pools.oltp.maximum-pool-size=8
+ * app.datasource.pools.catalog.connection-timeout=2000
+ * app.datasource.pools.background.leak-detection-threshold=300000
+ * </pre>
+ */
+@Configuration
+public class ConnectionPoolConfiguration {
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.oltp")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        return pool(properties, meterRegistry, "oltp", 5, 3_000, 10_000);
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.catalog")
+    public HikariDataSource catalogDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        return pool(properties, meterRegistry, "catalog", 3, 3_000, 10_000);
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.background")
+    public HikariDataSource backgroundDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        return pool(properties, meterRegistry, "background", 2, 30_000, 120_000);
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadDataSource(@Qualifier("oltpDataSource") DataSource oltp,
+                                                        @Qualifier("catalogDataSource") DataSource catalog,
+                                                        @Qualifier("backgroundDataSource") DataSource background) {
+        return new WorkloadRoutingDataSource(Map.of(
+                Workload.OLTP, oltp,
+                Workload.CATALOG, catalog,
+                Workload.BACKGROUND, background));
+    }
+
+    // With a read replica, ReadReplicaConfiguration puts replica routing in front of the workload pools instead
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(WorkloadRoutingDataSource workloadDataSource) {
+        return new LazyConnectionDataSourceProxy(workloadDataSource);
+    }
+
+    // Defaults are set before the app.datasource.pools.<name>.* properties are bound, so the properties win
+    private static HikariDataSource pool(DataSourceProperties properties, MeterRegistry meterRegistry, String name,
+                                         int maximumPoolSize, long connectionTimeoutMillis,
+                                         long leakDetectionThresholdMillis) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMillis);
+        dataSource.setLeakDetectionThreshold(leakDetectionThresholdMillis);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ronak.welcome.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits database traffic between the primary and a read replica when app.datasource.replica.enabled=true;
+ * otherwise all traffic goes straight to the workload pools.
+ *
+ * The primary side is the per-workload pools of {@link ConnectionPoolConfiguration}; the replica pool is built
+ * from app.datasource.replica.url / username / password (credentials default to the primary's) with pool
+ * settings under app.datasource.replica.hikari.*. The application-wide DataSource routes between the two,
+ * see {@link ReadWriteRoutingDataSource}; read-only work that cannot use the replica lands in the primary's
+ * catalog pool.
+ *
+ * Example:
+ * <pre>
+ * app.datasource.replica.enabled=true
+ * app.datasource.replica.url=jdbc:postgresql://replica:5432/booking_db
+ * app.datasource.replica.hikari.maximum-pool-size=20
+ * app.datasource.replica.max-lag-ms=2000
+ * app.datasource.replica.read-your-writes-ms=5000
+ * app.datasource.replica.read-your-writes-secret=... (defaults to the JWT secret)
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long readYourWritesMillis; // Should be at least max-lag-ms
+
+    @Value("${app.datasource.replica.max-tracked-writers:100000}")
+    private long maxTrackedWriters;
+
+    // Signs the read-your-writes cookie; must be the same on every node
+    @Value("${app.datasource.replica.read-your-writes-secret:${application.security.jwt.secret-key}}")
+    private String readYourWritesSecret;
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, replicaUrl, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(Duration.ofMillis(readYourWritesMillis), maxTrackedWriters,
+                readYourWritesSecret);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                workloadDataSource, replicaDataSource, replicaLagMonitor, readYourWritesTracker, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
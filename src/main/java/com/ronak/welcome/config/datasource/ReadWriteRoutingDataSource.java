@@ -0,0 +1,99 @@
+package com.ronak.welcome.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * A connection goes to the replica only when all of these hold:
+ * <ul>
+ *     <li>it is requested inside a {@code @Transactional(readOnly = true)} transaction</li>
+ *     <li>the replica is within the tolerated lag ({@link ReplicaLagMonitor})</li>
+ *     <li>the current user has not committed a write recently ({@link ReadYourWritesTracker})</li>
+ * </ul>
+ * Every read-write transaction of an authenticated user records that user as a recent writer once it commits.
+ * A replica read made while the replica is measurably behind is reported to {@link ReplicaReads}.
+ *
+ * The decision uses the transaction state, which Spring binds only after the transaction has begun, so this
+ * data source must sit behind a LazyConnectionDataSourceProxy that defers fetching the physical connection
+ * until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter laggingReads;
+    private final Counter stickyReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.writes = routed(meterRegistry, Target.PRIMARY, "read-write");
+        this.replicaReads = routed(meterRegistry, Target.REPLICA, "read-only");
+        this.laggingReads = routed(meterRegistry, Target.PRIMARY, "replica-lagging");
+        this.stickyReads = routed(meterRegistry, Target.PRIMARY, "read-your-writes");
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("datasource.routing")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.recordWrite(username);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        if (username != null && readYourWrites.wroteRecently(username)) {
+            stickyReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            laggingReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        if (lagMonitor.getLagMillis() > 0) {
+            ReplicaReads.recordLaggingRead();
+        }
+        return Target.REPLICA;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
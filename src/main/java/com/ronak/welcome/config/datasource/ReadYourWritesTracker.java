@@ -0,0 +1,121 @@
+package com.ronak.welcome.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers which users committed a write recently, so their reads stay on the primary until the replica
+ * has had time to replay that write (e.g. a user's booking list right after they booked).
+ *
+ * Behind a load balancer the user's next request may reach another node, so the write is remembered in two
+ * places: in this node's memory, and in a signed "last_write" cookie on the response of the request that
+ * wrote. The cookie names the user and when the window ends, is signed with HMAC-SHA256, and expires with the
+ * window, so any node can honour it without shared state. Clients that do not keep cookies are only covered
+ * by the node they wrote through and need sticky sessions to read their own writes.
+ *
+ * The window should be at least the maximum replica lag that is tolerated for reads; beyond that the
+ * replica is taken out of rotation by {@link ReplicaLagMonitor} anyway.
+ */
+public class ReadYourWritesTracker {
+
+    static final String COOKIE = "last_write";
+    private static final String HMAC = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration window;
+    private final SecretKeySpec signingKey;
+
+    public ReadYourWritesTracker(Duration window, long maxTrackedUsers, String signingSecret) {
+        this.window = window;
+        this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+        ServletRequestAttributes attributes = currentRequest();
+        HttpServletResponse response = attributes != null ? attributes.getResponse() : null;
+        if (response != null && !response.isCommitted()) {
+            long until = System.currentTimeMillis() + window.toMillis();
+            String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + until;
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, payload + "." + sign(payload))
+                    .httpOnly(true)
+                    .secure(attributes.getRequest().isSecure())
+                    .sameSite("Lax")
+                    .path("/")
+                    .maxAge(window.toSeconds() + 1)
+                    .build()
+                    .toString());
+        }
+    }
+
+    public boolean wroteRecently(String username) {
+        if (recentWriters.getIfPresent(username) != null) {
+            return true;
+        }
+        ServletRequestAttributes attributes = currentRequest();
+        return attributes != null && cookieCoversWrite(attributes.getRequest(), username);
+    }
+
+    // Written through another node: honour a valid, unexpired cookie issued for the same user
+    private boolean cookieCoversWrite(HttpServletRequest request, String username) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (!COOKIE.equals(cookie.getName())) {
+                continue;
+            }
+            String[] parts = cookie.getValue().split("\\.");
+            if (parts.length != 3) {
+                return false;
+            }
+            String payload = parts[0] + "." + parts[1];
+            try {
+                return MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.US_ASCII),
+                                parts[2].getBytes(StandardCharsets.US_ASCII))
+                        && new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8).equals(username)
+                        && Long.parseLong(parts[1]) > System.currentTimeMillis();
+            } catch (IllegalArgumentException e) {
+                return false; // Not Base64 or not a number: not a cookie we issued
+            }
+        }
+        return false;
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(signingKey);
+            return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet : null;
+    }
+}
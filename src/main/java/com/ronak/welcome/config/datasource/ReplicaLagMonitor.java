@@ -0,0 +1,118 @@
+package com.ronak.welcome.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically measures how far the read replica is behind the primary, and takes it out of rotation while
+ * the lag exceeds the tolerated maximum or cannot be measured (replica down, replication stopped).
+ *
+ * The lag is read on the replica itself:
+ * <ul>
+ *     <li>PostgreSQL: time since the last replayed transaction, or 0 when everything received has been
+ *     replayed (an idle primary produces no new transactions, so the timestamp alone would grow forever).
+ *     Only trusted while the WAL receiver is streaming: once it stops, nothing new is received, so received
+ *     and replayed positions are equal however far the primary has moved on.</li>
+ *     <li>MySQL: Seconds_Behind_Source from SHOW REPLICA STATUS; MariaDB: Seconds_Behind_Master</li>
+ * </ul>
+ * A server that is not replicating at all reports 0, so a replica URL pointing at the primary works as well.
+ * Exported as the "datasource.replica.lag" gauge in milliseconds; -1 while unknown.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN -1
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE((EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint, 0)
+            END""";
+
+    private static final long UNKNOWN = -1;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final DatabaseDriver driver;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String replicaUrl, long maxLagMillis,
+                             MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.driver = DatabaseDriver.fromJdbcUrl(replicaUrl);
+        this.maxLagMillis = maxLagMillis;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True when the last measurement succeeded and was within the tolerated lag.
+     */
+    public boolean isReplicaUsable() {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    /**
+     * The last measured lag in milliseconds, or -1 while unknown.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        boolean wasUsable = isReplicaUsable();
+        String failure = null;
+        try {
+            lagMillis = measure();
+        } catch (Exception e) {
+            lagMillis = UNKNOWN;
+            failure = e.getMessage();
+        }
+        boolean usable = isReplicaUsable();
+        if (wasUsable && !usable) {
+            logger.warn("Read replica out of rotation (lag {} ms, max {} ms{}), routing reads to the primary.",
+                    lagMillis, maxLagMillis, failure != null ? ", " + failure : "");
+        } else if (!wasUsable && usable) {
+            logger.info("Read replica is {} ms behind, routing read-only transactions to it.", lagMillis);
+        }
+    }
+
+    private long measure() {
+        return switch (driver) {
+            case POSTGRESQL -> replicaJdbcTemplate.queryForObject(POSTGRES_LAG_QUERY, Long.class);
+            case MYSQL, MARIADB -> mysqlLag();
+            default -> 0;
+        };
+    }
+
+    // The lag column is NULL while replication is stopped, which makes the replica unusable.
+    // MariaDB still calls it Seconds_Behind_Master.
+    private long mysqlLag() {
+        List<Map<String, Object>> status = replicaJdbcTemplate.queryForList("SHOW REPLICA STATUS");
+        if (status.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> row = status.get(0);
+        Object seconds = row.containsKey("Seconds_Behind_Source")
+                ? row.get("Seconds_Behind_Source")
+                : row.get("Seconds_Behind_Master");
+        if (seconds == null) {
+            return UNKNOWN;
+        }
+        return ((Number) seconds).longValue() * 1000;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ronak.welcome.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Tells a caller whether the reads it ran were served by a replica that was behind the primary, so data that
+ * may predate the latest committed write is not kept around (e.g. by a response cache).
+ *
+ * Without a replica configured, nothing is ever recorded and every result counts as current.
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> LAGGING = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * @param value The result of the reads.
+     * @param fromLaggingReplica True when any of them used a replica connection while its lag was above 0.
+     */
+    public record Tracked<T>(T value, boolean fromLaggingReplica) {}
+
+    public static <T> Tracked<T> track(Supplier<T> reads) {
+        Boolean outer = LAGGING.get();
+        LAGGING.set(Boolean.FALSE);
+        try {
+            T value = reads.get();
+            return new Tracked<>(value, LAGGING.get());
+        } finally {
+            // A lagging read inside a nested track() also taints the enclosing one
+            boolean lagging = LAGGING.get();
+            if (outer == null) {
+                LAGGING.remove();
+            } else {
+                LAGGING.set(outer || lagging);
+            }
+        }
+    }
+
+    // Called by ReadWriteRoutingDataSource; a no-op unless the thread is inside track()
+    static void recordLaggingRead() {
+        if (LAGGING.get() != null) {
+            LAGGING.set(Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ronak.welcome.config.datasource;
+
+/**
+ * The kinds of database work that get their own connection pool, so one cannot starve another.
+ */
+public enum Workload {
+    OLTP,       // Request-path reads and writes: bookings, registrations, accounts
+    CATALOG,    // Read-only transactions: listings, search, availability, recommendations
+    BACKGROUND  // Outbox processing, sweeps, bulk imports; marked with @BackgroundWork
+}
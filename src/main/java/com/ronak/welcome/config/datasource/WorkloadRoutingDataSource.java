@@ -0,0 +1,51 @@
+package com.ronak.welcome.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Picks the connection pool for the current work:
+ * <ul>
+ *     <li>{@link Workload#BACKGROUND} while the thread is inside a {@link BackgroundWork} method</li>
+ *     <li>{@link Workload#CATALOG} inside {@code @Transactional(readOnly = true)}</li>
+ *     <li>{@link Workload#OLTP} for everything else</li>
+ * </ul>
+ * Like {@link ReadWriteRoutingDataSource}, it must sit behind a LazyConnectionDataSourceProxy so the
+ * transaction state is known when the pool is chosen.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(pools.get(Workload.OLTP));
+    }
+
+    /**
+     * Binds an explicit workload to the current thread, or clears it when null.
+     *
+     * @return The previously bound workload, to be restored afterwards.
+     */
+    static Workload bind(Workload workload) {
+        Workload previous = CURRENT.get();
+        if (workload == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(workload);
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload explicit = CURRENT.get();
+        if (explicit != null) {
+            return explicit;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Workload.CATALOG : Workload.OLTP;
+    }
+}
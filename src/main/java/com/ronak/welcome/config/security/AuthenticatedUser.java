@@ -0,0 +1,64 @@
+package com.ronak.welcome.config.security;
+
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal built from the claims of a verified access token.
+ * It carries the user ID and roles so requests can be authorized without loading the user from the database,
+ * and so SpEL expressions like {@code #id == authentication.principal.id} work.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Set<Role> roles;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, Set<Role> roles) {
+        this.id = id;
+        this.username = username;
+        this.roles = roles;
+        this.authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .toList();
+    }
+
+    public static AuthenticatedUser of(UserSnapshot user) {
+        return new AuthenticatedUser(user.id(), user.username(), user.roles());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Set<Role> getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(Role role) {
+        return roles.contains(role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null; // Never needed: the request was authenticated by the token
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ronak.welcome.config.security;
+
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.exception.ResourceNotFoundException;
+import com.ronak.welcome.service.impl.UserCacheService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Resolves the user behind the current request at most once per request.
+ *
+ * The identity (ID, username, roles) comes straight from the {@link AuthenticatedUser} principal that
+ * JwtAuthenticationFilter puts in the security context, so services and @PreAuthorize expressions can
+ * check ownership and roles without any lookup. The full {@link UserSnapshot} is only loaded when a caller
+ * needs more than that (e.g. the email address), and is then memoized as a request attribute.
+ * Outside a web request (scheduled jobs, async work) every call goes to the user cache.
+ */
+@Component
+public class CurrentUserContext {
+
+    private static final String SNAPSHOT_ATTRIBUTE = CurrentUserContext.class.getName() + ".SNAPSHOT";
+
+    private final UserCacheService userCacheService;
+
+    public CurrentUserContext(UserCacheService userCacheService) {
+        this.userCacheService = userCacheService;
+    }
+
+    /**
+     * Returns the identity of the given user, or empty if the username is blank or unknown.
+     * Services receive the username from their controllers, so it is matched against the principal
+     * rather than trusted blindly.
+     */
+    public Optional<AuthenticatedUser> resolve(String username) {
+        if (username == null || username.isEmpty()) {
+            return Optional.empty();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && principal.getUsername().equals(username)) {
+            return Optional.of(principal);
+        }
+        return snapshot(username).map(AuthenticatedUser::of);
+    }
+
+    public AuthenticatedUser require(String username) {
+        return resolve(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    }
+
+    public Optional<UserSnapshot> snapshot(String username) {
+        if (username == null || username.isEmpty()) {
+            return Optional.empty();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(SNAPSHOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UserSnapshot cached
+                && cached.username().equals(username)) {
+            return Optional.of(cached);
+        }
+        Optional<UserSnapshot> snapshot = userCacheService.findByUsername(username);
+        snapshot.ifPresent(user -> bind(attributes, user));
+        return snapshot;
+    }
+
+    /**
+     * Called by the authentication filter when it had to load the user anyway, so later lookups in the
+     * same request are free.
+     */
+    public void bind(UserSnapshot snapshot) {
+        bind(RequestContextHolder.getRequestAttributes(), snapshot);
+    }
+
+    private static void bind(RequestAttributes attributes, UserSnapshot snapshot) {
+        if (attributes != null) {
+            attributes.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
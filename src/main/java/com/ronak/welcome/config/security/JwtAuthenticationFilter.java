@@ -1,9 +1,16 @@
 package com.ronak.welcome.config.security;
 
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.service.impl.UserCacheService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,17 +20,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtService jwtService;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserCacheService userCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final CurrentUserContext currentUserContext;
 
     public JwtAuthenticationFilter(JwtService jwtService,
-                                   UserDetailsServiceImpl userDetailsService) {
+                                   UserCacheService userCacheService,
+                                   TokenVersionService tokenVersionService,
+                                   CurrentUserContext currentUserContext) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.userCacheService = userCacheService;
+        this.tokenVersionService = tokenVersionService;
+        this.currentUserContext = currentUserContext;
     }
 
     @Override
@@ -34,7 +52,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final Claims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -42,11 +60,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        try {
+            // Signature and expiration are verified once here; the claims are reused below
+            claims = jwtService.validateToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response); // Invalid or expired token: continue unauthenticated
+            return;
+        }
+        final String userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            UserDetails userDetails = claims.get(JwtService.USER_ID_CLAIM) != null
+                    ? authenticateFromClaims(claims)
+                    : authenticateFromDatabase(claims);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -60,4 +87,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stateless path: the token carries the user ID, roles and token version, so the only check left is
+     * whether the token has been revoked, which is answered from an in-memory cache.
+     */
+    private UserDetails authenticateFromClaims(Claims claims) {
+        Long userId = ((Number) claims.get(JwtService.USER_ID_CLAIM)).longValue();
+        Number tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Number.class);
+        if (tokenVersion == null || !tokenVersionService.isCurrent(userId, tokenVersion.longValue())) {
+            return null; // Revoked: roles or username changed, or the user was deleted
+        }
+
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        Object roleClaim = claims.get(JwtService.ROLES_CLAIM);
+        if (roleClaim instanceof Collection<?> roleNames) {
+            for (Object roleName : roleNames) {
+                try {
+                    roles.add(Role.valueOf(String.valueOf(roleName)));
+                } catch (IllegalArgumentException e) {
+                    // Not a role this build knows: treat the token as invalid rather than guess its authorities
+                    logger.warn("Rejecting token for user {} with unknown role claim '{}'.", userId, roleName);
+                    return null;
+                }
+            }
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), roles);
+    }
+
+    // Tokens issued before user ID and roles were embedded still authenticate against the user store.
+    // The loaded snapshot is bound to the request so services don't look the user up again.
+    private UserDetails authenticateFromDatabase(Claims claims) {
+        UserSnapshot user = userCacheService.findByUsername(claims.getSubject()).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        AuthenticatedUser userDetails = AuthenticatedUser.of(user);
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        currentUserContext.bind(user);
+        return userDetails;
+    }
+}
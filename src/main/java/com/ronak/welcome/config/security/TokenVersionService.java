@@ -0,0 +1,63 @@
+package com.ronak.welcome.config.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ronak.welcome.events.UserChangedEvent;
+import com.ronak.welcome.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Answers "is this access token still current?" for stateless authentication.
+ * Every access token carries the user's token version; bumping the version (on role change, username change
+ * or deletion) revokes all tokens issued before. Versions are served from an in-memory cache, so the check costs
+ * no query on the hot path. Local changes evict immediately; changes made on other nodes are picked up when the
+ * entry expires.
+ */
+@Service
+public class TokenVersionService {
+
+    private static final long USER_DELETED = -1L;
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.jwt.version-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${application.security.jwt.version-cache.max-size:100000}")
+    private long maxSize;
+
+    private LoadingCache<Long, Long> versions;
+
+    public TokenVersionService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userId -> userRepository.findTokenVersionById(userId).orElse(USER_DELETED));
+    }
+
+    /**
+     * @param userId The user ID from the token.
+     * @param tokenVersion The token version from the token.
+     * @return true if the user still exists and the token was issued for the user's current version.
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        return current != USER_DELETED && current == tokenVersion;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+}
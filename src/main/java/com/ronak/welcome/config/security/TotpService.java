@@ -1,19 +1,80 @@
 // src/main/java/com/ronak/welcome/config/security/TotpService.java
 package com.ronak.welcome.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.exception.TooManyAttemptsException;
+import com.ronak.welcome.service.BucketStore;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 // REMOVED: import com.warrenstrange.googleauth.GoogleAuthenticatorQRGenerator; // No longer needed
 
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+/**
+ * TOTP enrollment and verification.
+ *
+ * Verification rejects replays: the last accepted time step is remembered per user, and a code from the
+ * same or an earlier step is refused even though it is still inside the validity window. The steps live
+ * in a bounded in-memory cache whose entries only need to outlive the window, so no database write is
+ * needed. Attempts are throttled per user through the dedicated "totpAttemptStore" (see
+ * RateLimitBackendConfiguration) rather than the client rate-limit buckets: that store only forgets a user's
+ * attempts once they sit idle, so a flood of other clients cannot evict them, and with a shared backend every
+ * attempt is checked cluster-wide. Verification latency is recorded as
+ * "totp.verification", tagged by outcome.
+ */
 @Service
 public class TotpService {
 
-    private final GoogleAuthenticator gAuth = new GoogleAuthenticator();
+    private final GoogleAuthenticatorConfig config = new GoogleAuthenticatorConfig();
+    private final GoogleAuthenticator gAuth = new GoogleAuthenticator(config);
+    private final BucketStore attemptStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.totp.max-attempts:5}")
+    private long maxAttempts;
+
+    @Value("${app.security.totp.attempt-window-seconds:300}")
+    private long attemptWindowSeconds;
+
+    @Value("${app.security.totp.replay-cache.max-size:100000}")
+    private long replayCacheSize;
+
+    // User ID -> last accepted time step
+    private Cache<Long, Long> lastUsedSteps;
+    private BucketConfiguration attemptLimit;
+
+    public TotpService(@Qualifier("totpAttemptStore") BucketStore attemptStore, MeterRegistry meterRegistry) {
+        this.attemptStore = attemptStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        long windowMillis = config.getTimeStepSizeInMillis() * config.getWindowSize();
+        this.lastUsedSteps = Caffeine.newBuilder()
+                .maximumSize(replayCacheSize)
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+        this.attemptLimit = Bucket4j.configurationBuilder()
+                .addLimit(Bandwidth.classic(maxAttempts,
+                        Refill.intervally(maxAttempts, Duration.ofSeconds(attemptWindowSeconds))))
+                .build();
+    }
 
     /**
      * Generates a new TOTP secret key for a user.
@@ -47,11 +108,58 @@ public class TotpService {
 
     /**
      * Verifies a TOTP code provided by the user.
+     * @param userId The ID of the user, used for replay protection and throttling.
      * @param secret The user's base32 encoded TOTP secret.
      * @param code The TOTP code entered by the user.
-     * @return true if the code is valid, false otherwise.
+     * @return true if the code is valid and was not used before, false otherwise.
+     * @throws TooManyAttemptsException if the user exhausted their verification attempts.
      */
-    public boolean verifyCode(String secret, int code) {
-        return gAuth.authorize(secret, code);
+    public boolean verifyCode(Long userId, String secret, int code) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            if (!attemptStore.resolve("totp:" + userId, () -> attemptLimit).tryConsume(1)) {
+                outcome = "throttled";
+                throw new TooManyAttemptsException("Too many TOTP attempts, please try again later.");
+            }
+            long step = matchingTimeStep(secret, code);
+            if (step < 0) {
+                return false;
+            }
+            if (!markUsed(userId, step)) {
+                outcome = "replay";
+                return false;
+            }
+            outcome = "valid";
+            return true;
+        } finally {
+            sample.stop(meterRegistry.timer("totp.verification", "outcome", outcome));
+        }
+    }
+
+    // Returns the time step whose code matches, searching the same window as GoogleAuthenticator.authorize, or -1
+    private long matchingTimeStep(String secret, int code) {
+        long stepMillis = config.getTimeStepSizeInMillis();
+        long currentStep = System.currentTimeMillis() / stepMillis;
+        int window = config.getWindowSize();
+        for (long step = currentStep - (window - 1) / 2; step <= currentStep + window / 2; step++) {
+            if (gAuth.getTotpPassword(secret, step * stepMillis) == code) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    // Atomically accepts the step only if it is newer than the last one accepted for this user
+    private boolean markUsed(Long userId, long step) {
+        boolean[] accepted = {false};
+        lastUsedSteps.asMap().compute(userId, (id, lastStep) -> {
+            if (lastStep != null && lastStep >= step) {
+                return lastStep;
+            }
+            accepted[0] = true;
+            return step;
+        });
+        return accepted[0];
     }
 }
@@ -1,36 +1,64 @@
 package com.ronak.welcome.config.security;
 
-import com.ronak.welcome.entity.User;
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.events.UserChangedEvent;
 import com.ronak.welcome.repository.UserRepository;
+import com.ronak.welcome.service.impl.UserCacheService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserCacheService userCacheService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserCacheService userCacheService,
+                                  UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.userCacheService = userCacheService;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .orElseGet(() -> userRepository.findByEmail(usernameOrEmail)
-                        .orElseThrow(() -> new UsernameNotFoundException(
-                                "User not found with username or email: " + usernameOrEmail)));
+        UserSnapshot user = userCacheService.findByUsernameOrEmail(usernameOrEmail)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with username or email: " + usernameOrEmail));
 
-        String[] roles = user.getRoles().stream()
+        String[] roles = user.roles().stream()
                 .map(Object::toString)
                 .toArray(String[]::new);
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
+                .username(user.username())
+                .password(user.password())
                 .roles(roles)
                 .build();
     }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login whose stored hash uses an outdated
+     * algorithm or cost. Only the password column is written; the cached snapshot is evicted after commit.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserSnapshot snapshot = userCacheService.findByUsername(user.getUsername()).orElse(null);
+        if (snapshot == null) {
+            return user;
+        }
+        userRepository.updatePassword(snapshot.id(), newPassword);
+        eventPublisher.publishEvent(new UserChangedEvent(snapshot.id(), snapshot.username(), snapshot.email()));
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
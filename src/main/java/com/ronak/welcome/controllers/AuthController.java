@@ -3,11 +3,11 @@ package com.ronak.welcome.controllers;
 import com.ronak.welcome.DTO.AuthRequest;
 import com.ronak.welcome.DTO.AuthResponse;
 import com.ronak.welcome.DTO.RefreshTokenRequest;
+import com.ronak.welcome.DTO.UserSnapshot;
 import com.ronak.welcome.config.security.JwtService;
 import com.ronak.welcome.config.security.TotpService;
-import com.ronak.welcome.entity.User;
-import com.ronak.welcome.repository.UserRepository;
 import com.ronak.welcome.service.AuthService;
+import com.ronak.welcome.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,19 +19,20 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final TotpService totpService;
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
-        return ResponseEntity.ok(authService.login(authRequest));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest authRequest) {
+        return authService.loginAsync(authRequest).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/refresh")
@@ -41,15 +42,12 @@ public class AuthController {
 
     @PostMapping("/totp/register")
     public ResponseEntity<Map<String, String>> registerTotp(Authentication auth) {
-        User user = userRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
         String secret = totpService.generateNewSecret();
-        user.setTotpSecret(secret);
-        userRepository.save(user);
+        UserSnapshot user = userService.updateTotpSecret(auth.getName(), secret);
 
         String qrUrl = totpService.generateQrCodeUrl(
                 secret,
-                user.getUsername(),
+                user.username(),
                 "bms"
         );
 
@@ -6,9 +6,12 @@ import com.ronak.welcome.DTO.BookableItemResponse;
 import com.ronak.welcome.enums.BookableItemType;
 // IMPORTANT: Import BookableItemService from its 'impl' package
 import com.ronak.welcome.service.impl.BookableItemService;
+import com.ronak.welcome.service.impl.CatalogResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -23,7 +26,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookableItemController {
 
+    private static final List<String> SEARCH_PARAMETERS = List.of(
+            "keywords", "type", "location", "minPrice", "maxPrice", "startDate", "endDate", "sortBy", "sortOrder");
+
     private final BookableItemService bookableItemService;
+    private final CatalogResponseCache catalogResponseCache;
 
     /**
      * Creates a new bookable item. Only EVENT_ORGANIZER or ADMIN can create.
@@ -47,15 +54,16 @@ public class BookableItemController {
      * Accessible at /api/v1/items/{id}
      * @param id The ID of the bookable item.
      * @param authentication Spring Security Authentication object.
-     * @return ResponseEntity with BookableItemResponse.
+     * @return ResponseEntity with the BookableItemResponse JSON, served from the catalog response cache.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<BookableItemResponse> getBookableItemById(
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getBookableItemById(
             @PathVariable Long id,
-            Authentication authentication) {
+            Authentication authentication,
+            HttpServletRequest httpRequest) {
         String username = authentication != null ? authentication.getName() : null;
-        BookableItemResponse response = bookableItemService.getBookableItemById(id, username);
-        return ResponseEntity.ok(response);
+        return catalogResponseCache.respond(httpRequest, authentication, List.of(),
+                () -> bookableItemService.getBookableItemById(id, username));
     }
 
     /**
@@ -66,19 +74,20 @@ public class BookableItemController {
      * @param authentication Spring Security Authentication object.
      * @param providerId Optional: Filter by provider ID.
      * @param onlyMyItems Optional: If true, only return items owned by the current user.
-     * @return ResponseEntity with a list of BookableItemResponse.
+     * @return ResponseEntity with the list JSON, served from the catalog response cache.
      */
-    @GetMapping
-    public ResponseEntity<List<BookableItemResponse>> getAllBookableItems(
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllBookableItems(
             Authentication authentication,
             @RequestParam(required = false) Long providerId,
-            @RequestParam(required = false) Boolean onlyMyItems) {
+            @RequestParam(required = false) Boolean onlyMyItems,
+            HttpServletRequest httpRequest) {
         String username = authentication != null ? authentication.getName() : null;
         // The getAllBookableItems in service doesn't use providerId/onlyMyItems directly in its current form from your code
         // so you might want to adjust that service method or remove these params if they aren't used.
         // For now, I'm calling the version that exists in your service.
-        List<BookableItemResponse> response = bookableItemService.getAllBookableItems(username);
-        return ResponseEntity.ok(response);
+        return catalogResponseCache.respond(httpRequest, authentication, List.of(),
+                () -> bookableItemService.getAllBookableItems(username));
     }
 
     /**
@@ -95,10 +104,10 @@ public class BookableItemController {
      * @param sortBy Field to sort by (e.g., "name", "startTime", "price").
      * @param sortOrder Sort order ("asc" or "desc").
      * @param authentication Spring Security Authentication object.
-     * @return ResponseEntity with a list of matching BookableItemResponse.
+     * @return ResponseEntity with the matching items JSON, served from the catalog response cache.
      */
-    @GetMapping("/search")
-    public ResponseEntity<List<BookableItemResponse>> searchBookableItems(
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> searchBookableItems(
             @RequestParam(required = false) String keywords,
             @RequestParam(required = false) BookableItemType type,
             @RequestParam(required = false) String location,
@@ -108,11 +117,12 @@ public class BookableItemController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false, defaultValue = "name") String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortOrder,
-            Authentication authentication) {
+            Authentication authentication,
+            HttpServletRequest httpRequest) {
         String username = authentication != null ? authentication.getName() : null;
-        List<BookableItemResponse> response = bookableItemService.searchBookableItems(
-                keywords, type, location, minPrice, maxPrice, startDate, endDate, sortBy, sortOrder, username);
-        return ResponseEntity.ok(response);
+        return catalogResponseCache.respond(httpRequest, authentication, SEARCH_PARAMETERS,
+                () -> bookableItemService.searchBookableItems(
+                        keywords, type, location, minPrice, maxPrice, startDate, endDate, sortBy, sortOrder, username));
     }
 
     /**
@@ -63,7 +63,7 @@ public class BookingController {
      * @return ResponseEntity with a list of BookingResponse and HTTP status 200 OK.
      */
     @GetMapping("/items/{bookableItemId}") // New path for getting bookings by item
-    @PreAuthorize("hasRole('ADMIN') or @bookableItemService.getBookableItemById(#bookableItemId).providerUsername() == authentication.name") // Updated @PreAuthorize
+    @PreAuthorize("hasRole('ADMIN') or @bookableItemService.isProvider(#bookableItemId, authentication.name)")
     public ResponseEntity<List<BookingResponse>> getBookingsByBookableItemId(@PathVariable Long bookableItemId) { // Renamed method and parameter
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
@@ -2,11 +2,18 @@ package com.ronak.welcome.controllers;
 
 
 import com.ronak.welcome.DTO.TotpVerifyRequest;
+import com.ronak.welcome.DTO.UserImportResult;
+import com.ronak.welcome.DTO.UserPageResponse;
 import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.DTO.UserSnapshot;
 import com.ronak.welcome.DTO.UserUpdateRequest;
 import com.ronak.welcome.config.security.TotpService;
 import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
 import com.ronak.welcome.repository.UserRepository;
+import com.ronak.welcome.service.impl.UserCacheService;
+import com.ronak.welcome.service.impl.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +23,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import com.ronak.welcome.service.UserService;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/v1/user")
@@ -24,11 +31,16 @@ public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final TotpService totpService;
+    private final UserCacheService userCacheService;
+    private final UserImportService userImportService;
 
-    public UserController(UserService userService, UserRepository userRepository, TotpService totpService) {
+    public UserController(UserService userService, UserRepository userRepository, TotpService totpService,
+                          UserCacheService userCacheService, UserImportService userImportService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.totpService = totpService;
+        this.userCacheService = userCacheService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping
@@ -58,11 +70,28 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
+    public ResponseEntity<UserPageResponse> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String emailPrefix) {
+        UserPageResponse users = userService.getUsers(after, limit, role, emailPrefix);
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Bulk-creates users from a CSV (text/csv, with a header row) or NDJSON (application/x-ndjson) upload.
+     * CSV columns: username, email, password, roles (separated by ';'), street, zipCode, addressType, city, state, country.
+     * Rows that fail validation or already exist are skipped and listed in the response.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType().toLowerCase().startsWith("text/csv");
+        UserImportResult result = userImportService.importUsers(request.getInputStream(), csv);
+        return ResponseEntity.ok(result);
+    }
+
     // Update user: User can update their own profile, ADMIN can update any
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
@@ -84,23 +113,22 @@ public class UserController {
     public ResponseEntity<?> verifyTotp(@RequestBody TotpVerifyRequest request, Authentication authentication) {
         // The currently logged-in user
         String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
+        UserSnapshot user = userCacheService.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Check if secret is set (should be, right after /totp/register)
-        if (user.getTotpSecret() == null || user.getTotpSecret().isEmpty()) {
+        if (user.totpSecret() == null || user.totpSecret().isEmpty()) {
             return ResponseEntity.badRequest().body("TOTP not registered for this user.");
         }
 
         // Use your existing TotpService to verify the code
-        boolean valid = totpService.verifyCode(user.getTotpSecret(), Integer.parseInt(request.getCode()));
+        boolean valid = totpService.verifyCode(user.id(), user.totpSecret(), Integer.parseInt(request.getCode()));
         if (!valid) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid TOTP code.");
         }
 
         // Enable TOTP for this user
-        user.setTotpEnabled(true);
-        userRepository.save(user);
+        userService.enableTotp(username);
 
         return ResponseEntity.ok("TOTP verified and enabled.");
     }
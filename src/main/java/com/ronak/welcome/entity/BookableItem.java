@@ -2,13 +2,21 @@
 package com.ronak.welcome.entity;
 
 import com.ronak.welcome.enums.BookableItemType;
-import com.ronak.welcome.util.JsonListConverter; // Import the converter
+import com.ronak.welcome.util.PriceTierListConverter;
 import com.ronak.welcome.DTO.PriceTier; // Import PriceTier DTO
+import com.ronak.welcome.util.PriceSchedule;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List; // For the list of price tiers
@@ -17,11 +25,16 @@ import java.util.List; // For the list of price tiers
 @Inheritance(strategy = InheritanceType.JOINED)
 @Data
 @NoArgsConstructor
-@Table(name = "bookable_items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-items")
+@Table(name = "bookable_items", indexes = {
+        // Serves the per-provider private path of BookableItemVisibility
+        @Index(name = "idx_bookable_items_provider_private", columnList = "provider_id, is_private")
+})
 public class BookableItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookable_items_seq")
+    @SequenceGenerator(name = "bookable_items_seq", sequenceName = "bookable_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -65,8 +78,35 @@ public class BookableItem {
     private boolean isPrivate = false;
 
     // in BookableItem.java
-    @Convert(converter = JsonListConverter.class)
+    @Convert(converter = PriceTierListConverter.class)
     @Column(columnDefinition = "TEXT")
     private List<PriceTier> priceTiers;
 
+    // Looked up from the shared PriceSchedule cache on first use after load; reset by either setter
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private PriceSchedule priceSchedule;
+
+    public void setPrice(double price) {
+        this.price = price;
+        this.priceSchedule = null;
+    }
+
+    // Copied, since the list becomes part of a shared PriceSchedule cache key (loaded lists are immutable already)
+    public void setPriceTiers(List<PriceTier> priceTiers) {
+        this.priceTiers = priceTiers == null ? null : List.copyOf(priceTiers);
+        this.priceSchedule = null;
+    }
+
+    public PriceSchedule getPriceSchedule() {
+        PriceSchedule schedule = priceSchedule;
+        if (schedule == null) {
+            schedule = PriceSchedule.of(priceTiers, price);
+            priceSchedule = schedule;
+        }
+        return schedule;
+    }
 }
@@ -2,15 +2,21 @@ package com.ronak.welcome.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "geography-cities")
+// Names are unique per state regardless of case: see the uk_cities_state_name_ci index in migration V4
 @Table(name = "cities")
 @Data
 public class City {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cities_seq")
+    @SequenceGenerator(name = "cities_seq", sequenceName = "cities_seq", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false)
     private String name;
 
     @ManyToOne
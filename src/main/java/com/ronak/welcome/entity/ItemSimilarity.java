@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class ItemSimilarity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_similarities_seq")
+    @SequenceGenerator(name = "item_similarities_seq", sequenceName = "item_similarities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,30 @@
+package com.ronak.welcome.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Serialized Bucket4j state shared by all app instances when app.rate-limit.backend=jdbc.
+ * Rows are read and swapped by JdbcBucketProxyManager; the entity only exists so the table
+ * is created together with the rest of the schema.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "rate_limit_buckets")
+public class RateLimitBucketState {
+
+    @Id
+    @Column(length = 255)
+    private String id; // The client key (e.g., IP address or user ID)
+
+    @Column(nullable = false, length = 2048)
+    private byte[] state;
+
+    @Column(nullable = false)
+    private long version; // Incremented on every successful compare-and-swap
+
+    @Column(nullable = false)
+    private long updatedAt; // Epoch millis of the last swap, used to sweep idle buckets
+}
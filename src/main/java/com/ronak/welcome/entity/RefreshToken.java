@@ -3,23 +3,41 @@ package com.ronak.welcome.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.Instant;
 
+/**
+ * An opaque refresh token. Only the SHA-256 hash of the token is stored, so a leaked table
+ * cannot be replayed. Rotated tokens are kept (revoked) until they expire, so presenting one
+ * again is detected as reuse.
+ */
 @Data
 @Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_expiry", columnList = "expiry_date")
+})
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // Base64url SHA-256 of the token handed to the client
+    @Column(name = "token_hash", nullable = false, unique = true, length = 43)
+    private String tokenHash;
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
-}
\ No newline at end of file
+
+    @Column(nullable = false)
+    private boolean revoked = false;
+}
@@ -2,15 +2,21 @@ package com.ronak.welcome.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "geography-states")
+// Names are unique per country regardless of case: see the uk_states_country_name_ci index in migration V4
 @Table(name = "states")
 @Data
 public class State {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "states_seq")
+    @SequenceGenerator(name = "states_seq", sequenceName = "states_seq", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false)
     private String name;
 
     @ManyToOne
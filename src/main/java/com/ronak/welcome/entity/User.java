@@ -6,6 +6,9 @@ import jakarta.validation.constraints.Email;
 import lombok.Data;
 import com.ronak.welcome.enums.Role;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 import java.util.Set;
@@ -13,10 +16,12 @@ import java.util.Set;
 @Entity
 @Data
 @NoArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -30,6 +35,7 @@ public class User {
     private String password;
 
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "role")
@@ -42,5 +48,10 @@ public class User {
     private String totpSecret;
     private boolean totpEnabled = false;
 
+    // Embedded in access tokens; incrementing it revokes every token issued before
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long tokenVersion = 0;
+
 
 }
\ No newline at end of file
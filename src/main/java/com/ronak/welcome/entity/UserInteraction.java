@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class UserInteraction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_interactions_seq")
+    @SequenceGenerator(name = "user_interactions_seq", sequenceName = "user_interactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
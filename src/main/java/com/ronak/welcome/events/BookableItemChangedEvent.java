@@ -0,0 +1,9 @@
+package com.ronak.welcome.events;
+
+/**
+ * Published when a bookable item is created, updated or deleted.
+ * Caches holding rendered catalog data listen for it and drop that data once the change commits.
+ *
+ * @param bookableItemId The ID of the changed item.
+ */
+public record BookableItemChangedEvent(Long bookableItemId) {}
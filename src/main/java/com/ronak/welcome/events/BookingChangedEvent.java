@@ -0,0 +1,15 @@
+package com.ronak.welcome.events;
+
+import com.ronak.welcome.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking is created or changes status.
+ * In-memory demand signals and caches derived from an item's bookings listen for it once the change commits.
+ *
+ * @param bookableItemId The ID of the booked item.
+ * @param status The booking's new status.
+ * @param bookedAt When the booking was made (local time), so a change can be attributed to the original booking.
+ */
+public record BookingChangedEvent(Long bookableItemId, BookingStatus status, LocalDateTime bookedAt) {}
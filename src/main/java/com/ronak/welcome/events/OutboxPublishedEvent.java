@@ -0,0 +1,10 @@
+package com.ronak.welcome.events;
+
+/**
+ * Published whenever a new OutboxEvent row is written.
+ * Listeners use it to wake the outbox processor once the writing transaction commits,
+ * instead of waiting for the next polling cycle.
+ *
+ * @param eventType The type of the outbox event that was written (e.g., "BOOKING_CONFIRMED").
+ */
+public record OutboxPublishedEvent(String eventType) {}
@@ -0,0 +1,11 @@
+package com.ronak.welcome.events;
+
+/**
+ * Published when a user's account data changes (update, role change, deletion, TOTP changes).
+ * Caches holding data derived from the user listen for it and evict the user once the change commits.
+ *
+ * @param userId The ID of the changed user.
+ * @param username The username before the change, used to evict entries keyed by username.
+ * @param email The email before the change, used to evict entries keyed by email.
+ */
+public record UserChangedEvent(Long userId, String username, String email) {}
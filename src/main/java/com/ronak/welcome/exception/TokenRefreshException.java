@@ -1,7 +0,0 @@
-package com.ronak.welcome.exception;
-
-public class TokenRefreshException extends RuntimeException {
-    public TokenRefreshException(String message) {
-        super(message);
-    }
-}
\ No newline at end of file
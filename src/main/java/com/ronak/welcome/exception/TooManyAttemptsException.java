@@ -0,0 +1,11 @@
+package com.ronak.welcome.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyAttemptsException extends RuntimeException {
+    public TooManyAttemptsException(String message) {
+        super(message);
+    }
+}
@@ -4,8 +4,13 @@ package com.ronak.welcome.repository;
 import com.ronak.welcome.entity.BookableItem;
 import com.ronak.welcome.entity.User;
 import com.ronak.welcome.enums.BookableItemType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -15,13 +20,37 @@ import java.util.Optional;
 @Repository
 public interface BookableItemRepository extends JpaRepository<BookableItem, Long>, JpaSpecificationExecutor<BookableItem> {
 
+    String CATALOG_QUERY_REGION = "catalog-queries";
+
     List<BookableItem> findByProvider(User provider);
 
+    boolean existsByIdAndProviderId(Long id, Long providerId);
+
     // REMOVED: The problematic method findByIsPrivateFalseOrProvider
     // Its logic is now handled by JpaSpecificationExecutor in BookableItemService
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
     List<BookableItem> findByType(BookableItemType type);
 
+    // Redeclared so catalog listings and searches go through the query cache; any write to
+    // bookable_items invalidates the cached results through Hibernate's update timestamps
+    @Override
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
+    List<BookableItem> findAll(Specification<BookableItem> spec);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
+    List<BookableItem> findAll(Specification<BookableItem> spec, Sort sort);
+
     // This method is for conflict detection for time-based items.
     // It finds any confirmed/pending bookings for the same item that overlap with the given time range.
     // (Keeping this as it seems to be for a specific use case, not the general visibility filter)
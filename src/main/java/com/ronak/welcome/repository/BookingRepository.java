@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUser(User user);
     List<Booking> findByBookableItem(BookableItem bookableItem);
     Optional<Booking> findByUserAndBookableItem(User user, BookableItem bookableItem);
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.bookableItem = :bookableItem AND b.status IN ('CONFIRMED', 'PENDING')")
+    long countActiveByBookableItem(@Param("bookableItem") BookableItem bookableItem);
+
+    // Rows of [bookableItemId, count]; items without active bookings are absent
+    @Query("SELECT b.bookableItem.id, COUNT(b) FROM Booking b WHERE b.bookableItem.id IN :itemIds " +
+            "AND b.status IN ('CONFIRMED', 'PENDING') GROUP BY b.bookableItem.id")
+    List<Object[]> countActiveByBookableItemIds(@Param("itemIds") Collection<Long> itemIds);
 
     @Query("SELECT b FROM Booking b WHERE b.bookableItem = :bookableItem " +
             "AND b.status IN ('CONFIRMED', 'PENDING') " + // Only consider confirmed or pending bookings
@@ -3,9 +3,18 @@ package com.ronak.welcome.repository;
 import com.ronak.welcome.entity.City;
 import com.ronak.welcome.entity.State;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CityRepository extends JpaRepository<City, Long> {
-    Optional<City> findByNameIgnoreCaseAndState(String name, State state);
+    // Matches the unique index on (state_id, lower(name))
+    @Query("SELECT c FROM City c WHERE c.state = :state AND lower(c.name) = lower(:name)")
+    Optional<City> findByNameIgnoreCaseAndState(@Param("name") String name, @Param("state") State state);
+
+    // (id, name, state id) of every row, used to warm the geography cache without loading entities
+    @Query("SELECT c.id, c.name, c.state.id FROM City c")
+    List<Object[]> findAllIdsAndNames();
 }
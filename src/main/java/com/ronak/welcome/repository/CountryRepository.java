@@ -2,9 +2,13 @@ package com.ronak.welcome.repository;
 
 import com.ronak.welcome.entity.Country;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface CountryRepository extends JpaRepository<Country, Long> {
-    Optional<Country> findByNameIgnoreCase(String name);
+    // lower(), not the upper() of a derived IgnoreCase query, so the unique index on lower(name) is used
+    @Query("SELECT c FROM Country c WHERE lower(c.name) = lower(:name)")
+    Optional<Country> findByNameIgnoreCase(@Param("name") String name);
 }
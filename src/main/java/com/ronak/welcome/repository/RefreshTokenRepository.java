@@ -1,17 +1,40 @@
 package com.ronak.welcome.repository;
 
 import com.ronak.welcome.entity.RefreshToken;
-import com.ronak.welcome.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+
+    // The user is fetched in the same query: a refresh always needs it to mint the access token
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    // Succeeds for exactly one caller when the same token is presented concurrently
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.id = :id AND t.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Query("SELECT t.tokenHash FROM RefreshToken t WHERE t.user.id = :userId AND t.revoked = false")
+    List<String> findActiveTokenHashesByUserId(@Param("userId") Long userId);
 
     @Modifying
-    int deleteByUser(User user);
-}
\ No newline at end of file
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.user.id = :userId AND t.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiryDate < :now")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
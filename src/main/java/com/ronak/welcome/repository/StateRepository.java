@@ -3,9 +3,18 @@ package com.ronak.welcome.repository;
 import com.ronak.welcome.entity.Country;
 import com.ronak.welcome.entity.State;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface StateRepository extends JpaRepository<State, Long> {
-    Optional<State> findByNameIgnoreCaseAndCountry(String name, Country country);
+    // Matches the unique index on (country_id, lower(name))
+    @Query("SELECT s FROM State s WHERE s.country = :country AND lower(s.name) = lower(:name)")
+    Optional<State> findByNameIgnoreCaseAndCountry(@Param("name") String name, @Param("country") Country country);
+
+    // (id, name, country id) of every row, used to warm the geography cache without loading entities
+    @Query("SELECT s.id, s.name, s.country.id FROM State s")
+    List<Object[]> findAllIdsAndNames();
 }
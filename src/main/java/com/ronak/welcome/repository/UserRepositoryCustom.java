@@ -0,0 +1,19 @@
+package com.ronak.welcome.repository;
+
+import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.enums.Role;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Keyset page of users ordered by ID, mapped straight to UserResponse.
+     *
+     * @param afterId Only users with a greater ID are returned; null for the first page.
+     * @param limit Maximum number of users.
+     * @param role Optional: only users having this role.
+     * @param emailPrefix Optional: only users whose email starts with this prefix (case-sensitive, so the email index can be used).
+     */
+    List<UserResponse> findUserPage(Long afterId, int limit, Role role, String emailPrefix);
+}
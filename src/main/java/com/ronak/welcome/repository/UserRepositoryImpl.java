@@ -0,0 +1,85 @@
+package com.ronak.welcome.repository;
+
+import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a user page in two queries, independent of the page size:
+ * first the IDs of the page (filtered and limited in the database, seeking on the primary key),
+ * then the scalar columns and roles of those users through a single join.
+ * No User entities or per-row role collections are loaded.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> findUserPage(Long afterId, int limit, Role role, String emailPrefix) {
+        List<Long> ids = findPageIds(afterId, limit, role, emailPrefix);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT u.id, u.username, u.email, r FROM User u LEFT JOIN u.roles r " +
+                                "WHERE u.id IN :ids ORDER BY u.id", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        // One row per (user, role); fold them back into one response per user, keeping ID order
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            UserResponse user = users.computeIfAbsent((Long) row[0], id ->
+                    new UserResponse(id, (String) row[1], (String) row[2], EnumSet.noneOf(Role.class)));
+            if (row[3] != null) {
+                user.roles().add((Role) row[3]);
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
+
+    private List<Long> findPageIds(Long afterId, int limit, Role role, String emailPrefix) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(user.get("id"), afterId));
+        }
+        if (emailPrefix != null && !emailPrefix.isBlank()) {
+            predicates.add(cb.like(user.get("email"), escapeLike(emailPrefix) + "%", '\\'));
+        }
+        if (role != null) {
+            // Each user has a role at most once, so the inner join cannot duplicate IDs
+            Join<User, Role> roles = user.join("roles");
+            predicates.add(cb.equal(roles, role));
+        }
+
+        query.select(user.get("id"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -4,10 +4,11 @@ package com.ronak.welcome.service;
 import com.ronak.welcome.DTO.AuthRequest;
 import com.ronak.welcome.DTO.AuthResponse;
 import com.ronak.welcome.DTO.RefreshTokenRequest;
+import com.ronak.welcome.DTO.UserSnapshot;
 import com.ronak.welcome.config.security.TotpService;
-import com.ronak.welcome.entity.User;
-import com.ronak.welcome.repository.UserRepository;
 import com.ronak.welcome.config.security.JwtService;
+import com.ronak.welcome.config.security.PasswordHashingExecutor;
+import com.ronak.welcome.service.impl.UserCacheService;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,23 +19,38 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final JwtService jwtService;
     private final TotpService totpService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthService(AuthenticationManager authenticationManager,
-                       UserRepository userRepository,
-                       JwtService jwtService, TotpService totpService) {
+                       UserCacheService userCacheService,
+                       JwtService jwtService, TotpService totpService,
+                       PasswordHashingExecutor passwordHashingExecutor,
+                       RefreshTokenService refreshTokenService) {
         this.authenticationManager = authenticationManager;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.jwtService = jwtService;
         this.totpService = totpService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * Runs {@link #login} on the password hashing pool so the request thread is released while BCrypt runs.
+     * Throws ServiceBusyException (503) right away if the pool's queue is full.
+     */
+    public CompletableFuture<AuthResponse> loginAsync(AuthRequest authRequest) {
+        return passwordHashingExecutor.submit(() -> login(authRequest));
     }
 
     public AuthResponse login(AuthRequest authRequest) {
@@ -46,54 +62,42 @@ public class AuthService {
                 )
         );
 
-        User user = userRepository.findByUsername(authRequest.username())
-                .orElseGet(() -> userRepository.findByEmail(authRequest.username())
-                        .orElseThrow(() -> new RuntimeException("User not found")));
+        // Served from the cache populated by the authentication step above
+        UserSnapshot user = userCacheService.findByUsernameOrEmail(authRequest.username())
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
 
         // If TOTP is enabled for this user, require the TOTP code
-        if (user.isTotpEnabled()) {
+        if (user.totpEnabled()) {
             if (authRequest.totpCode() == null ||
-                    !totpService.verifyCode(user.getTotpSecret(), authRequest.totpCode())) {
+                    !totpService.verifyCode(user.id(), user.totpSecret(), authRequest.totpCode())) {
                 throw new RuntimeException("Invalid or missing TOTP code");
             }
         }
 
         UserDetails userDetails = buildSpringUserDetails(user);
 
-        String jwtToken = jwtService.generateToken(userDetails);
-        String refreshToken = jwtService.generateRefreshToken(userDetails);
+        String jwtToken = jwtService.generateAccessToken(user, userDetails);
+        String refreshToken = refreshTokenService.createRefreshToken(user.id());
         return new AuthResponse(jwtToken, refreshToken);
     }
 
     public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
-        String refreshToken = refreshTokenRequest.refreshToken();
-        String username = jwtService.extractUsername(refreshToken);
-
-        if (username != null) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found for refresh token: " + username));
-
-            UserDetails userDetails = buildSpringUserDetails(user);
-
-            if (jwtService.isTokenValid(refreshToken, userDetails)) {
-                String newAccessToken = jwtService.generateToken(userDetails);
-                String newRefreshToken = jwtService.generateRefreshToken(userDetails);
-
-                return new AuthResponse(newAccessToken, newRefreshToken);
-            }
-        }
-        throw new RuntimeException("Invalid or expired refresh token.");
+        // Consumes the presented token; throws InvalidRefreshTokenException (401) if it is unknown, expired or reused
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(refreshTokenRequest.refreshToken());
+        UserDetails userDetails = buildSpringUserDetails(rotated.user());
+        String newAccessToken = jwtService.generateAccessToken(rotated.user(), userDetails);
+        return new AuthResponse(newAccessToken, rotated.refreshToken());
     }
 
-    // Utility method to convert your JPA user to a Spring Security UserDetails instance
-    private UserDetails buildSpringUserDetails(User user) {
-        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+    // Utility method to convert a cached user snapshot to a Spring Security UserDetails instance
+    private UserDetails buildSpringUserDetails(UserSnapshot user) {
+        List<SimpleGrantedAuthority> authorities = user.roles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
                 .collect(Collectors.toList());
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
+                user.username(),
+                user.password(),
                 authorities
         );
     }
@@ -0,0 +1,22 @@
+package com.ronak.welcome.service;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the rate-limit bucket state for each client.
+ * Implementations decide whether that state lives only in this JVM or is shared by all app instances.
+ */
+public interface BucketStore {
+
+    /**
+     * Returns the bucket for the given key, creating it from the configuration if it does not exist yet.
+     *
+     * @param key The client key (e.g., IP address or user ID).
+     * @param configuration Supplies the bucket limits, only called when the bucket has to be created.
+     * @return The bucket to consume tokens from.
+     */
+    Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -3,5 +3,15 @@ package com.ronak.welcome.service;
 import com.ronak.welcome.entity.City;
 
 public interface CityService {
-    City resolveCity(City inputCity);
-}
\ No newline at end of file
+
+    /**
+     * Resolves the city / state / country names to the city's ID, creating missing rows.
+     * Must be called before the caller's transaction starts: creating a row takes a connection of its own.
+     */
+    Long resolveCityId(City inputCity);
+
+    /**
+     * An uninitialized reference to a resolved city, for use inside the caller's transaction.
+     */
+    City getReference(Long cityId);
+}
@@ -1,57 +1,174 @@
 package com.ronak.welcome.service;
 
-import com.ronak.welcome.config.security.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.config.datasource.BackgroundWork;
 import com.ronak.welcome.entity.RefreshToken;
-import com.ronak.welcome.entity.User;
-import com.ronak.welcome.exception.TokenRefreshException;
+import com.ronak.welcome.exception.InvalidRefreshTokenException;
 import com.ronak.welcome.repository.RefreshTokenRepository;
 import com.ronak.welcome.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Base64;
+import java.util.List;
 
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * Every refresh consumes the presented token and issues a new one. A token that was already consumed
+ * being presented again means it was stolen (either the thief or the real user used it first), so all
+ * of that user's refresh tokens are revoked and both parties have to log in again.
+ * Consumed and revoked tokens are remembered in memory with their owner, so a replay is answered (and the
+ * owner's tokens revoked) without looking the token up again.
+ */
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     @Value("${application.security.jwt.refresh-token.expiration}")
     private Long refreshTokenDurationMs;
 
+    @Value("${application.security.jwt.refresh-token.revoked-cache.max-size:100000}")
+    private long revokedCacheSize;
+
+    @Value("${application.security.jwt.refresh-token.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Hash of a token known to be consumed or revoked -> its user ID. Entries never need to outlive the token itself.
+    private Cache<String, Long> revokedTokens;
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
     }
 
-    public RefreshToken createRefreshToken(User user) {
+    @PostConstruct
+    void init() {
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(revokedCacheSize)
+                .expireAfterWrite(Duration.ofMillis(refreshTokenDurationMs))
+                .build();
+    }
+
+    public record RotatedToken(UserSnapshot user, String refreshToken) {}
+
+    /**
+     * Creates a refresh token for the user and returns the raw value; only its hash is stored.
+     */
+    @Transactional
+    public String createRefreshToken(Long userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = TOKEN_ENCODER.encodeToString(bytes);
+
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setTokenHash(hash(token));
         refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
-
-        refreshToken = refreshTokenRepository.save(refreshToken);
-        return refreshToken;
+        refreshTokenRepository.save(refreshToken);
+        return token;
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException("Refresh token was expired. Please make a new login request");
+    /**
+     * Consumes the presented token and issues its replacement.
+     * Reuse revocations must survive the exception thrown to the caller, hence noRollbackFor.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RotatedToken rotate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing.");
         }
-        return token;
+        String tokenHash = hash(token);
+        Long revokedOwner = revokedTokens.getIfPresent(tokenHash);
+        if (revokedOwner != null) {
+            throw reuseDetected(revokedOwner);
+        }
+
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashWithUser(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token."));
+        Long userId = refreshToken.getUser().getId();
+
+        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
+            refreshTokenRepository.delete(refreshToken);
+            throw new InvalidRefreshTokenException("Refresh token was expired. Please make a new login request");
+        }
+        if (refreshToken.isRevoked() || refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+            revokedTokens.put(tokenHash, userId);
+            throw reuseDetected(userId);
+        }
+        revokedTokens.put(tokenHash, userId);
+
+        return new RotatedToken(UserSnapshot.of(refreshToken.getUser()), createRefreshToken(userId));
+    }
+
+    private InvalidRefreshTokenException reuseDetected(Long userId) {
+        logger.warn("Refresh token reuse detected for user {}; revoking all of the user's refresh tokens.", userId);
+        revokeAllForUser(userId);
+        return new InvalidRefreshTokenException("Refresh token has been revoked.");
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        List<String> activeHashes = refreshTokenRepository.findActiveTokenHashesByUserId(userId);
+        refreshTokenRepository.revokeAllByUserId(userId);
+        activeHashes.forEach(hash -> revokedTokens.put(hash, userId));
     }
 
     @Transactional
     public int deleteByUserId(Long userId) {
-        return userRepository.findById(userId)
-                .map(user -> refreshTokenRepository.deleteByUser(user))
-                .orElse(0);
+        refreshTokenRepository.findActiveTokenHashesByUserId(userId)
+                .forEach(hash -> revokedTokens.put(hash, userId));
+        return refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Deletes expired tokens in batches; each batch is its own short transaction,
+     * so the sweep never holds locks on a large part of the table.
+     */
+    @BackgroundWork
+    @Scheduled(fixedDelayString = "${application.security.jwt.refresh-token.sweep-interval-ms:3600000}")
+    public void sweepExpiredTokens() {
+        Instant now = Instant.now();
+        int deleted = 0;
+        List<Long> expiredIds;
+        do {
+            expiredIds = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+            if (!expiredIds.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(expiredIds);
+                deleted += expiredIds.size();
+            }
+        } while (expiredIds.size() == sweepBatchSize);
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens.", deleted);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return TOKEN_ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-}
\ No newline at end of file
+}
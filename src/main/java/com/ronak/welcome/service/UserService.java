@@ -1,16 +1,19 @@
 package com.ronak.welcome.service;
 
+import com.ronak.welcome.DTO.UserPageResponse;
 import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.DTO.UserSnapshot;
 import com.ronak.welcome.DTO.UserUpdateRequest;
 import com.ronak.welcome.entity.User;
-
-import java.util.List;
+import com.ronak.welcome.enums.Role;
 
 public interface UserService {
     User createUser(User user);
     UserResponse getUserById(Long id);
-    List<UserResponse> getAllUsers();
+    UserPageResponse getUsers(Long afterId, Integer limit, Role role, String emailPrefix);
     UserResponse updateUser(Long id, UserUpdateRequest userUpdateRequest);
     void deleteUser(Long id);
     UserResponse getCurrentUser(String username);
+    UserSnapshot updateTotpSecret(String username, String totpSecret);
+    void enableTotp(String username);
 }
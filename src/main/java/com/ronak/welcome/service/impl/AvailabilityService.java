@@ -1,17 +1,15 @@
 package com.ronak.welcome.service.impl;
 
 import com.ronak.welcome.DTO.AvailableSlotResponse;
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.config.security.CurrentUserContext;
 import com.ronak.welcome.entity.BookableItem;
 import com.ronak.welcome.entity.Booking;
-import com.ronak.welcome.entity.User;
 import com.ronak.welcome.enums.BookableItemType;
-import com.ronak.welcome.enums.BookingStatus;
-import com.ronak.welcome.enums.Role;
 import com.ronak.welcome.exception.ResourceNotFoundException;
 import com.ronak.welcome.exception.ValidationException;
 import com.ronak.welcome.repository.BookableItemRepository;
 import com.ronak.welcome.repository.BookingRepository;
-import com.ronak.welcome.repository.UserRepository; // Needed for role checks
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,14 +24,17 @@ public class AvailabilityService {
 
     private final BookableItemRepository bookableItemRepository;
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository; // Inject UserRepository for role checks
+    private final CurrentUserContext currentUserContext; // Resolves the current user for role checks
+    private final BookableItemVisibility visibility;
 
     public AvailabilityService(BookableItemRepository bookableItemRepository,
                                BookingRepository bookingRepository,
-                               UserRepository userRepository) {
+                               CurrentUserContext currentUserContext,
+                               BookableItemVisibility visibility) {
         this.bookableItemRepository = bookableItemRepository;
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
+        this.currentUserContext = currentUserContext;
+        this.visibility = visibility;
     }
 
     /**
@@ -58,10 +59,10 @@ public class AvailabilityService {
 
         // Check for private item access
         if (bookableItem.isPrivate()) {
-            User currentUser = userRepository.findByUsername(currentUsername)
+            AuthenticatedUser currentUser = currentUserContext.resolve(currentUsername)
                     .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
 
-            if (!bookableItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN)) {
+            if (!visibility.canView(bookableItem, currentUser)) {
                 throw new SecurityException("You are not authorized to view availability for this private item.");
             }
         }
@@ -77,9 +78,7 @@ public class AvailabilityService {
         if (bookableItem.getType() == BookableItemType.EVENT || bookableItem.getType() == BookableItemType.CLASS) {
             // For events/classes, availability is usually about capacity, not time slots within the event.
             // We'll return a single "slot" representing the event itself if it's not fully booked.
-            long currentBookings = bookingRepository.findByBookableItem(bookableItem).stream()
-                    .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.PENDING)
-                    .count();
+            long currentBookings = bookingRepository.countActiveByBookableItem(bookableItem);
 
             if (currentBookings < bookableItem.getCapacity()) {
                 // Return the event's own time range as an available slot
@@ -3,28 +3,29 @@ package com.ronak.welcome.service.impl;
 
 import com.ronak.welcome.DTO.BookableItemRequest;
 import com.ronak.welcome.DTO.BookableItemResponse;
-import com.ronak.welcome.DTO.PriceTier;
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.config.security.CurrentUserContext;
 import com.ronak.welcome.entity.BookableItem;
 import com.ronak.welcome.entity.Event;
-import com.ronak.welcome.entity.User;
 import com.ronak.welcome.enums.BookableItemType;
 import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.events.BookableItemChangedEvent;
 import com.ronak.welcome.exception.ResourceNotFoundException;
 import com.ronak.welcome.exception.ValidationException;
 import com.ronak.welcome.repository.BookableItemRepository;
 import com.ronak.welcome.repository.BookingRepository;
 import com.ronak.welcome.repository.UserRepository;
 import com.ronak.welcome.util.BookableItemSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,21 +34,33 @@ public class BookableItemService {
     private final BookableItemRepository bookableItemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final CurrentUserContext currentUserContext;
+    private final PricingService pricingService;
+    private final BookableItemVisibility visibility;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BookableItemService(BookableItemRepository bookableItemRepository,
                                UserRepository userRepository,
-                               BookingRepository bookingRepository) {
+                               BookingRepository bookingRepository,
+                               CurrentUserContext currentUserContext,
+                               PricingService pricingService,
+                               BookableItemVisibility visibility,
+                               ApplicationEventPublisher eventPublisher) {
         this.bookableItemRepository = bookableItemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
+        this.currentUserContext = currentUserContext;
+        this.pricingService = pricingService;
+        this.visibility = visibility;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public BookableItemResponse createBookableItem(BookableItemRequest request, String providerUsername) {
-        User provider = userRepository.findByUsername(providerUsername)
+        AuthenticatedUser provider = currentUserContext.resolve(providerUsername)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found: " + providerUsername));
 
-        if (!provider.getRoles().contains(Role.ADMIN) && !provider.getRoles().contains(Role.EVENT_ORGANIZER)) {
+        if (!provider.hasRole(Role.ADMIN) && !provider.hasRole(Role.EVENT_ORGANIZER)) {
             throw new SecurityException("Only ADMINs or EVENT_ORGANIZERs can create bookable items.");
         }
 
@@ -81,11 +94,12 @@ public class BookableItemService {
         bookableItem.setCapacity(request.capacity());
         bookableItem.setPrice(request.price());
         bookableItem.setType(request.type());
-        bookableItem.setProvider(provider);
+        bookableItem.setProvider(userRepository.getReferenceById(provider.getId()));
         bookableItem.setPrivate(request.isPrivate());
         bookableItem.setPriceTiers(request.priceTiers());
 
         BookableItem savedItem = bookableItemRepository.save(bookableItem);
+        eventPublisher.publishEvent(new BookableItemChangedEvent(savedItem.getId()));
         return mapToBookableItemResponse(savedItem);
     }
 
@@ -94,70 +108,25 @@ public class BookableItemService {
         BookableItem item = bookableItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bookable item not found with ID: " + id));
 
-        if (item.isPrivate()) {
-            User currentUser = null; // Declare here
-            if (currentUsername != null && !currentUsername.isEmpty()) {
-                currentUser = userRepository.findByUsername(currentUsername).orElse(null);
-            }
-
-            if (currentUser == null || (!item.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN))) {
-                throw new SecurityException("You are not authorized to view this private item.");
-            }
+        if (item.isPrivate() && !visibility.canView(item, currentUserContext.resolve(currentUsername).orElse(null))) {
+            throw new SecurityException("You are not authorized to view this private item.");
         }
         return mapToBookableItemResponse(item);
     }
 
     @Transactional(readOnly = true)
     public List<BookableItemResponse> getAllBookableItems(String currentUsername) {
-        User currentUser = null;
-        if (currentUsername != null && !currentUsername.isEmpty()) {
-            currentUser = userRepository.findByUsername(currentUsername).orElse(null);
-        }
-
-        Specification<BookableItem> spec = null;
-
-        // --- FIX STARTS HERE ---
-        final User finalCurrentUser = currentUser; // Create an effectively final copy
-
         // Apply private item visibility rules
-        if (finalCurrentUser == null || !finalCurrentUser.getRoles().contains(Role.ADMIN)) {
-            Specification<BookableItem> visibilitySpec = BookableItemSpecifications.isNotPrivate();
-            if (finalCurrentUser != null) {
-                visibilitySpec = visibilitySpec.or((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("provider"), finalCurrentUser));
-            }
-            spec = visibilitySpec;
-        }
-        // --- FIX ENDS HERE ---
-
-        return bookableItemRepository.findAll(spec).stream()
-                .map(this::mapToBookableItemResponse)
-                .collect(Collectors.toList());
+        return mapToBookableItemResponses(visibility.findVisible(
+                currentUserContext.resolve(currentUsername).orElse(null), null, Sort.unsorted()));
     }
 
     @Transactional(readOnly = true)
     public List<BookableItemResponse> getBookableItemsByType(BookableItemType type, String currentUsername) {
-        User currentUser = null;
-        if (currentUsername != null && !currentUsername.isEmpty()) {
-            currentUser = userRepository.findByUsername(currentUsername).orElse(null);
-        }
-
-        Specification<BookableItem> spec = BookableItemSpecifications.hasType(type);
-
-        // --- FIX STARTS HERE ---
-        final User finalCurrentUser = currentUser; // Create an effectively final copy
-
-        if (finalCurrentUser == null || !finalCurrentUser.getRoles().contains(Role.ADMIN)) {
-            Specification<BookableItem> visibilitySpec = BookableItemSpecifications.isNotPrivate();
-            if (finalCurrentUser != null) {
-                visibilitySpec = visibilitySpec.or((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("provider"), finalCurrentUser));
-            }
-            spec = spec.and(visibilitySpec);
-        }
-        // --- FIX ENDS HERE ---
-
-        return bookableItemRepository.findAll(spec).stream()
-                .map(this::mapToBookableItemResponse)
-                .collect(Collectors.toList());
+        return mapToBookableItemResponses(visibility.findVisible(
+                currentUserContext.resolve(currentUsername).orElse(null),
+                BookableItemSpecifications.hasType(type),
+                Sort.unsorted()));
     }
 
     @Transactional(readOnly = true)
@@ -173,27 +142,13 @@ public class BookableItemService {
             String sortOrder,
             String currentUsername) {
 
-        User currentUser = null;
+        AuthenticatedUser currentUser = null;
         if (currentUsername != null && !currentUsername.isEmpty()) {
-            currentUser = userRepository.findByUsername(currentUsername)
+            currentUser = currentUserContext.resolve(currentUsername)
                     .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
         }
 
-        Specification<BookableItem> finalSpec = null;
-
-        // --- FIX STARTS HERE ---
-        final User finalCurrentUser = currentUser; // Create an effectively final copy
-
-        if (finalCurrentUser == null || !finalCurrentUser.getRoles().contains(Role.ADMIN)) {
-            Specification<BookableItem> visibilitySpec = BookableItemSpecifications.isNotPrivate();
-            if (finalCurrentUser != null) {
-                visibilitySpec = visibilitySpec.or((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("provider"), finalCurrentUser));
-            }
-            finalSpec = visibilitySpec;
-        }
-        // --- FIX ENDS HERE ---
-
-        finalSpec = combineSpecs(finalSpec, BookableItemSpecifications.hasKeywords(keywords));
+        Specification<BookableItem> finalSpec = BookableItemSpecifications.hasKeywords(keywords);
         finalSpec = combineSpecs(finalSpec, BookableItemSpecifications.hasType(type));
         finalSpec = combineSpecs(finalSpec, BookableItemSpecifications.hasLocation(location));
         finalSpec = combineSpecs(finalSpec, BookableItemSpecifications.hasMinPrice(minPrice));
@@ -207,10 +162,17 @@ public class BookableItemService {
             sort = Sort.by(direction, sortBy);
         }
 
-        List<BookableItem> items = bookableItemRepository.findAll(finalSpec, sort);
-        return items.stream()
-                .map(this::mapToBookableItemResponse)
-                .collect(Collectors.toList());
+        return mapToBookableItemResponses(visibility.findVisible(currentUser, finalSpec, sort));
+    }
+
+    /**
+     * Used by @PreAuthorize expressions: true if the given user is the provider of the item.
+     */
+    @Transactional(readOnly = true)
+    public boolean isProvider(Long bookableItemId, String username) {
+        return currentUserContext.resolve(username)
+                .map(user -> bookableItemRepository.existsByIdAndProviderId(bookableItemId, user.getId()))
+                .orElse(false);
     }
 
     private Specification<BookableItem> combineSpecs(Specification<BookableItem> existingSpec, Specification<BookableItem> newSpec) {
@@ -228,10 +190,10 @@ public class BookableItemService {
         BookableItem existingItem = bookableItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bookable item not found with ID: " + id));
 
-        User currentUser = userRepository.findByUsername(currentUsername)
+        AuthenticatedUser currentUser = currentUserContext.resolve(currentUsername)
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
 
-        if (!existingItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN)) {
+        if (!existingItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.hasRole(Role.ADMIN)) {
             throw new SecurityException("You are not authorized to update this bookable item.");
         }
 
@@ -259,6 +221,7 @@ public class BookableItemService {
         }
 
         BookableItem updatedItem = bookableItemRepository.save(existingItem);
+        eventPublisher.publishEvent(new BookableItemChangedEvent(updatedItem.getId()));
         return mapToBookableItemResponse(updatedItem);
     }
 
@@ -267,54 +230,52 @@ public class BookableItemService {
         BookableItem existingItem = bookableItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bookable item not found with ID: " + id));
 
-        User currentUser = userRepository.findByUsername(currentUsername)
+        AuthenticatedUser currentUser = currentUserContext.resolve(currentUsername)
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
 
-        if (!existingItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN)) {
+        if (!existingItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.hasRole(Role.ADMIN)) {
             throw new SecurityException("You are not authorized to delete this bookable item.");
         }
 
         bookableItemRepository.delete(existingItem);
+        eventPublisher.publishEvent(new BookableItemChangedEvent(id));
     }
 
     public double calculateEffectivePrice(BookableItem bookableItem) {
-        if (bookableItem.getPriceTiers() == null || bookableItem.getPriceTiers().isEmpty()) {
-            return bookableItem.getPrice();
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        long currentBookingsCount = bookingRepository.findByBookableItem(bookableItem).stream()
-                .filter(b -> b.getStatus() == com.ronak.welcome.enums.BookingStatus.CONFIRMED || b.getStatus() == com.ronak.welcome.enums.BookingStatus.PENDING)
-                .count();
-
-        List<PriceTier> sortedTiers = bookableItem.getPriceTiers().stream()
-                .sorted(Comparator
-                        .comparing(PriceTier::startDate)
-                        .thenComparing(PriceTier::maxQuantity))
-                .collect(Collectors.toList());
-
-        for (PriceTier tier : sortedTiers) {
-            boolean isTimeValid = (now.isEqual(tier.startDate()) || now.isAfter(tier.startDate())) &&
-                    (now.isEqual(tier.endDate()) || now.isBefore(tier.endDate()));
-
-            boolean isQuantityValid = currentBookingsCount >= tier.minQuantity() &&
-                    currentBookingsCount < tier.maxQuantity();
+        long activeBookings = pricingService.needsBookingCount(bookableItem)
+                ? bookingRepository.countActiveByBookableItem(bookableItem)
+                : 0;
+        return pricingService.quote(bookableItem, activeBookings);
+    }
 
-            if (isTimeValid && isQuantityValid) {
-                return tier.price();
+    // Prices a whole listing with one grouped count query instead of one per priced item
+    private List<BookableItemResponse> mapToBookableItemResponses(List<BookableItem> items) {
+        List<Long> countedIds = items.stream()
+                .filter(pricingService::needsBookingCount)
+                .map(BookableItem::getId)
+                .toList();
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        if (!countedIds.isEmpty()) {
+            for (Object[] row : bookingRepository.countActiveByBookableItemIds(countedIds)) {
+                bookingCounts.put((Long) row[0], (Long) row[1]);
             }
         }
-        return bookableItem.getPrice();
+        return items.stream()
+                .map(item -> mapToBookableItemResponse(item,
+                        pricingService.quote(item, bookingCounts.getOrDefault(item.getId(), 0L))))
+                .collect(Collectors.toList());
     }
 
     private BookableItemResponse mapToBookableItemResponse(BookableItem item) {
+        return mapToBookableItemResponse(item, calculateEffectivePrice(item));
+    }
+
+    private BookableItemResponse mapToBookableItemResponse(BookableItem item, double effectivePrice) {
         String eventSpecificField = null;
         if (item instanceof Event) {
             eventSpecificField = ((Event) item).getEventSpecificField();
         }
 
-        double effectivePrice = calculateEffectivePrice(item);
-
         return new BookableItemResponse(
                 item.getId(),
                 item.getName(),
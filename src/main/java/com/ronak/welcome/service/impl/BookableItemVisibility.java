@@ -0,0 +1,125 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.entity.BookableItem;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.repository.BookableItemRepository;
+import com.ronak.welcome.util.BookableItemSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The private-item rule in one place: a private item is visible to ADMINs and to its own provider,
+ * every other item is visible to everyone.
+ *
+ * Listings are not filtered with {@code NOT is_private OR provider_id = ?}, which no single index serves.
+ * Instead they are split by viewer:
+ * <ul>
+ *     <li>anonymous: the public path only ({@code is_private = false}); no provider clause is built</li>
+ *     <li>ADMIN: no visibility predicate at all</li>
+ *     <li>other users: the public path plus the viewer's own private items
+ *     ({@code provider_id = ? AND is_private = true}, served by idx_bookable_items_provider_private),
+ *     merged in the requested sort order</li>
+ * </ul>
+ * The merge only reproduces the database order for non-null numeric and timestamp properties (see
+ * {@link #MERGEABLE}); text and enum columns sort by the database collation, which Java cannot mirror.
+ * Other users sorting by anything else get a single query with the combined predicate instead.
+ */
+@Component
+public class BookableItemVisibility {
+
+    // Sort properties whose Java order equals the database order: NOT NULL numbers and timestamps
+    private static final Map<String, Comparator<BookableItem>> MERGEABLE = Map.of(
+            "id", Comparator.comparing(BookableItem::getId),
+            "startTime", Comparator.comparing(BookableItem::getStartTime),
+            "createdAt", Comparator.comparing(BookableItem::getCreatedAt),
+            "updatedAt", Comparator.comparing(BookableItem::getUpdatedAt),
+            "price", Comparator.comparingDouble(BookableItem::getPrice),
+            "capacity", Comparator.comparingInt(BookableItem::getCapacity));
+
+    private final BookableItemRepository bookableItemRepository;
+
+    public BookableItemVisibility(BookableItemRepository bookableItemRepository) {
+        this.bookableItemRepository = bookableItemRepository;
+    }
+
+    /**
+     * @param viewer The current user, or null when anonymous.
+     */
+    public boolean canView(BookableItem item, AuthenticatedUser viewer) {
+        if (!item.isPrivate()) {
+            return true;
+        }
+        return viewer != null && (viewer.hasRole(Role.ADMIN) || item.getProvider().getId().equals(viewer.getId()));
+    }
+
+    /**
+     * Loads the items matching {@code filters} that the viewer may see.
+     *
+     * @param viewer The current user, or null when anonymous.
+     * @param filters Additional criteria; null for none.
+     * @param sort The order of the result.
+     */
+    public List<BookableItem> findVisible(AuthenticatedUser viewer, Specification<BookableItem> filters, Sort sort) {
+        if (viewer != null && viewer.hasRole(Role.ADMIN)) {
+            return bookableItemRepository.findAll(filters, sort);
+        }
+        if (viewer == null) {
+            return bookableItemRepository.findAll(and(BookableItemSpecifications.isNotPrivate(), filters), sort);
+        }
+        if (!isMergeable(sort)) {
+            return bookableItemRepository.findAll(and(BookableItemSpecifications.isNotPrivate()
+                    .or(BookableItemSpecifications.isPrivateOfProvider(viewer.getId())), filters), sort);
+        }
+        List<BookableItem> publicItems = bookableItemRepository.findAll(
+                and(BookableItemSpecifications.isNotPrivate(), filters), sort);
+        List<BookableItem> ownPrivateItems = bookableItemRepository.findAll(
+                and(BookableItemSpecifications.isPrivateOfProvider(viewer.getId()), filters), sort);
+        if (ownPrivateItems.isEmpty()) {
+            return publicItems;
+        }
+        return merge(publicItems, ownPrivateItems, sort);
+    }
+
+    private static Specification<BookableItem> and(Specification<BookableItem> visibility, Specification<BookableItem> filters) {
+        return filters == null ? visibility : visibility.and(filters);
+    }
+
+    private static boolean isMergeable(Sort sort) {
+        return sort.stream().allMatch(order -> MERGEABLE.containsKey(order.getProperty()));
+    }
+
+    // Both inputs are already in sort order, so a single linear merge keeps the database ordering
+    private static List<BookableItem> merge(List<BookableItem> first, List<BookableItem> second, Sort sort) {
+        List<BookableItem> merged = new ArrayList<>(first.size() + second.size());
+        if (sort.isUnsorted()) {
+            merged.addAll(first);
+            merged.addAll(second);
+            return merged;
+        }
+        Comparator<BookableItem> order = comparator(sort);
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            merged.add(order.compare(first.get(i), second.get(j)) <= 0 ? first.get(i++) : second.get(j++));
+        }
+        merged.addAll(first.subList(i, first.size()));
+        merged.addAll(second.subList(j, second.size()));
+        return merged;
+    }
+
+    private static Comparator<BookableItem> comparator(Sort sort) {
+        Comparator<BookableItem> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<BookableItem> byProperty = MERGEABLE.get(order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+}
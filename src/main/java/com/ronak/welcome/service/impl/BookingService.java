@@ -1,19 +1,33 @@
 // src/main/java/com/ronak/welcome/service/BookingService.java
 package com.ronak.welcome.service.impl; // Changed package to service
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ronak.welcome.DTO.BookingRequest;
 import com.ronak.welcome.DTO.BookingResponse;
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.config.security.CurrentUserContext;
 import com.ronak.welcome.entity.BookableItem;
 import com.ronak.welcome.entity.Booking;
+import com.ronak.welcome.entity.OutboxEvent;
 import com.ronak.welcome.entity.User;
 import com.ronak.welcome.enums.BookableItemType;
 import com.ronak.welcome.enums.BookingStatus;
 import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.events.BookingChangedEvent;
+import com.ronak.welcome.events.OutboxPublishedEvent;
 import com.ronak.welcome.exception.ResourceNotFoundException;
 import com.ronak.welcome.exception.ValidationException;
 import com.ronak.welcome.repository.BookableItemRepository;
 import com.ronak.welcome.repository.BookingRepository;
+import com.ronak.welcome.repository.OutboxEventRepository;
 import com.ronak.welcome.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,22 +37,41 @@ import java.util.stream.Collectors;
 @Service
 public class BookingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final BookableItemRepository bookableItemRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserContext currentUserContext;
+    private final PricingService pricingService;
+    private final ObjectMapper objectMapper;
 
     public BookingService(BookingRepository bookingRepository,
                           UserRepository userRepository,
-                          BookableItemRepository bookableItemRepository) {
+                          BookableItemRepository bookableItemRepository,
+                          OutboxEventRepository outboxEventRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          CurrentUserContext currentUserContext,
+                          PricingService pricingService) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.bookableItemRepository = bookableItemRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.currentUserContext = currentUserContext;
+        this.pricingService = pricingService;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
     @Transactional
     public BookingResponse createBooking(BookingRequest request, String username) {
-        User user = userRepository.findByUsername(username)
+        UserSnapshot currentUser = currentUserContext.snapshot(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        User user = userRepository.getReferenceById(currentUser.id());
         BookableItem bookableItem = bookableItemRepository.findById(request.bookableItemId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bookable item not found with ID: " + request.bookableItemId()));
 
@@ -50,9 +83,7 @@ public class BookingService {
         // 2. Capacity-based conflict detection (for items with limited spots like events/classes)
         // This check is relevant if the booking consumes a 'slot' from the item's total capacity.
         // It's generally applicable to all BookableItemTypes that have a finite 'capacity'.
-        long currentConfirmedOrPendingBookings = bookingRepository.findByBookableItem(bookableItem).stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.PENDING)
-                .count();
+        long currentConfirmedOrPendingBookings = bookingRepository.countActiveByBookableItem(bookableItem);
         if (currentConfirmedOrPendingBookings >= bookableItem.getCapacity()) {
             throw new ValidationException("Bookable item '" + bookableItem.getName() + "' is fully booked.");
         }
@@ -80,17 +111,22 @@ public class BookingService {
         booking.setUser(user);
         booking.setBookableItem(bookableItem);
         booking.setStatus(BookingStatus.CONFIRMED);
+        // The quote is locked in at admission; later tier or surge changes do not affect this booking
+        booking.setPrice(pricingService.quote(bookableItem, currentConfirmedOrPendingBookings));
 
         Booking savedBooking = bookingRepository.save(booking);
-        return mapToBookingResponse(savedBooking);
+        eventPublisher.publishEvent(new BookingChangedEvent(bookableItem.getId(), savedBooking.getStatus(),
+                savedBooking.getBookingDate()));
+        BookingResponse response = mapToBookingResponse(savedBooking, currentUser.username());
+        writeOutboxEvent("BOOKING_CONFIRMED", response, currentUser.email());
+        return response;
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponse> getUserBookings(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
-        return bookingRepository.findByUser(user).stream()
-                .map(this::mapToBookingResponse)
+        AuthenticatedUser user = currentUserContext.require(username);
+        return bookingRepository.findByUser(userRepository.getReferenceById(user.getId())).stream()
+                .map(booking -> mapToBookingResponse(booking, user.getUsername()))
                 .collect(Collectors.toList());
     }
 
@@ -99,10 +135,10 @@ public class BookingService {
         BookableItem bookableItem = bookableItemRepository.findById(bookableItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bookable item not found with ID: " + bookableItemId));
 
-        User currentUser = userRepository.findByUsername(currentUsername)
+        AuthenticatedUser currentUser = currentUserContext.resolve(currentUsername)
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
 
-        if (!bookableItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN)) {
+        if (!bookableItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.hasRole(Role.ADMIN)) {
             throw new SecurityException("You are not authorized to view all bookings for this item.");
         }
 
@@ -116,10 +152,9 @@ public class BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        AuthenticatedUser user = currentUserContext.require(username);
 
-        if (!booking.getUser().getId().equals(user.getId()) && !user.getRoles().contains(Role.ADMIN)) {
+        if (!booking.getUser().getId().equals(user.getId()) && !user.hasRole(Role.ADMIN)) {
             throw new SecurityException("You are not authorized to cancel this booking.");
         }
 
@@ -128,18 +163,35 @@ public class BookingService {
         }
 
         booking.setStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        Booking cancelledBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(cancelledBooking.getBookableItem().getId(),
+                cancelledBooking.getStatus(), cancelledBooking.getBookingDate()));
+        writeOutboxEvent("BOOKING_CANCELLED", mapToBookingResponse(cancelledBooking), cancelledBooking.getUser().getEmail());
     }
     @Transactional(readOnly = true)
     public boolean isUserBooking(Long bookingId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
-        return bookingRepository.findById(bookingId)
-                .map(booking -> booking.getUser().getId().equals(user.getId()))
+        return currentUserContext.resolve(username)
+                .map(user -> bookingRepository.existsByIdAndUserId(bookingId, user.getId()))
                 .orElse(false);
     }
 
+    // Written in the booking's transaction; OutboxDispatcher wakes the processor once it commits
+    private void writeOutboxEvent(String eventType, BookingResponse payload, String recipientEmail) {
+        try {
+            String payloadJson = objectMapper.writeValueAsString(payload);
+            outboxEventRepository.save(new OutboxEvent(eventType, payloadJson, recipientEmail));
+            eventPublisher.publishEvent(new OutboxPublishedEvent(eventType));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to create OutboxEvent {} for booking {}: {}", eventType, payload.id(), e.getMessage());
+        }
+    }
+
     private BookingResponse mapToBookingResponse(Booking booking) {
+        return mapToBookingResponse(booking, booking.getUser().getUsername());
+    }
+
+    // Callers that already know the username pass it in, so the lazy user reference is never initialized
+    private BookingResponse mapToBookingResponse(Booking booking, String username) {
         String eventSpecificField = null;
         if (booking.getBookableItem() instanceof com.ronak.welcome.entity.Event) { // Fully qualified name
             eventSpecificField = ((com.ronak.welcome.entity.Event) booking.getBookableItem()).getEventSpecificField();
@@ -148,12 +200,13 @@ public class BookingService {
         return new BookingResponse(
                 booking.getId(),
                 booking.getUser().getId(),
-                booking.getUser().getUsername(),
+                username,
                 booking.getBookableItem().getId(),
                 booking.getBookableItem().getName(),
                 booking.getBookableItem().getType(),
                 booking.getBookingDate(),
-                booking.getStatus()
+                booking.getStatus(),
+                booking.getPrice()
         );
     }
 }
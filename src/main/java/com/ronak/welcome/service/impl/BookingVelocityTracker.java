@@ -0,0 +1,127 @@
+package com.ronak.welcome.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.enums.BookingStatus;
+import com.ronak.welcome.events.BookingChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Per-item sliding-window count of recent bookings, used as the booking velocity signal for surge pricing.
+ *
+ * Each item has a ring of one-minute buckets covering {@code window-minutes}; a booking adds one to the
+ * current bucket and a cancellation subtracts one from the bucket of the minute the booking was made, so the
+ * window holds net new demand. Cancelling a booking made before the window changes nothing: it was never
+ * counted, and must not cancel out fresh bookings. Buckets older than the window are reset lazily when their
+ * slot comes round again. Counters are updated after the booking
+ * transaction commits and are local to this node. Items without bookings for a whole window are dropped.
+ */
+@Component
+public class BookingVelocityTracker {
+
+    private static final long BUCKET_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    @Value("${app.pricing.surge.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${app.pricing.surge.max-tracked-items:100000}")
+    private long maxTrackedItems;
+
+    private Cache<Long, Window> windows;
+
+    @PostConstruct
+    void init() {
+        if (windowMinutes < 1) {
+            throw new IllegalStateException(
+                    "app.pricing.surge.window-minutes must be at least 1, was " + windowMinutes);
+        }
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxTrackedItems)
+                .expireAfterAccess(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        long now = System.currentTimeMillis();
+        if (event.status() == BookingStatus.CONFIRMED || event.status() == BookingStatus.PENDING) {
+            record(event.bookableItemId(), 1, now);
+        } else if (event.status() == BookingStatus.CANCELLED && event.bookedAt() != null) {
+            long bookedAt = event.bookedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            cancel(event.bookableItemId(), bookedAt, now);
+        }
+    }
+
+    /**
+     * @return The net number of bookings of the item during the last {@code window-minutes}, never negative.
+     */
+    public int recentBookings(Long bookableItemId) {
+        return recentBookings(bookableItemId, System.currentTimeMillis());
+    }
+
+    int recentBookings(Long bookableItemId, long nowMillis) {
+        Window window = windows.getIfPresent(bookableItemId);
+        return window == null ? 0 : window.sum(nowMillis / BUCKET_MILLIS);
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    void record(Long bookableItemId, int delta, long nowMillis) {
+        windows.get(bookableItemId, id -> new Window(windowMinutes)).add(nowMillis / BUCKET_MILLIS, delta);
+    }
+
+    // A booking made in the future (clock skew between nodes) is taken as made now
+    void cancel(Long bookableItemId, long bookedAtMillis, long nowMillis) {
+        Window window = windows.getIfPresent(bookableItemId);
+        if (window != null) {
+            window.remove(Math.min(bookedAtMillis, nowMillis) / BUCKET_MILLIS);
+        }
+    }
+
+    private static final class Window {
+        // Slot i holds the count for minute bucketMinutes[i]; a slot with an older minute is stale
+        private final long[] bucketMinutes;
+        private final int[] counts;
+
+        Window(int buckets) {
+            this.bucketMinutes = new long[buckets];
+            this.counts = new int[buckets];
+        }
+
+        synchronized void add(long minute, int delta) {
+            int slot = (int) (minute % counts.length);
+            if (bucketMinutes[slot] != minute) {
+                bucketMinutes[slot] = minute;
+                counts[slot] = 0;
+            }
+            counts[slot] += delta;
+        }
+
+        // Only if the booking's minute is still held: a slot reused for a later minute has dropped it already
+        synchronized void remove(long minute) {
+            int slot = (int) (minute % counts.length);
+            if (bucketMinutes[slot] == minute) {
+                counts[slot]--;
+            }
+        }
+
+        synchronized int sum(long minute) {
+            int total = 0;
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (minute - bucketMinutes[slot] < counts.length) {
+                    total += counts[slot];
+                }
+            }
+            return Math.max(total, 0);
+        }
+    }
+}
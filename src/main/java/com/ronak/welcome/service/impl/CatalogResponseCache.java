@@ -0,0 +1,248 @@
+package com.ronak.welcome.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.DTO.BookableItemResponse;
+import com.ronak.welcome.config.datasource.ReplicaReads;
+import com.ronak.welcome.events.BookableItemChangedEvent;
+import com.ronak.welcome.events.BookingChangedEvent;
+import com.ronak.welcome.events.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON of the public catalog GET endpoints.
+ *
+ * Entries are keyed by request path, the endpoint's own query parameters in name order, and the visibility
+ * class of the caller: one shared class for anonymous requests and one per authenticated username, since
+ * private items are only visible to their provider and admins. Each entry holds the JSON bytes, a gzipped
+ * copy when the body is at least {@code gzip-min-bytes}, and a strong ETag, so hits are served without
+ * touching the service layer and a matching {@code If-None-Match} gets a 304.
+ *
+ * Entries are dropped after the change that affects them commits: every entry on an item create, update or
+ * delete (listings and searches may gain or lose it), entries containing an item when its bookings change
+ * (its price may depend on them), and a user's entries when the user changes. The TTL bounds how long a
+ * time-dependent tier price can stay stale.
+ *
+ * A miss is only stored if no invalidation ran while its body was computed (the body may have been read before
+ * that change committed) and none of its reads came from a replica that was behind the primary. Such bodies
+ * are still served, just not cached.
+ */
+@Service
+public class CatalogResponseCache {
+
+    private static final String ANONYMOUS = "anon";
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.catalog-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.catalog-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.catalog-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<String, Entry> responses;
+
+    // Bumped before every invalidation, so a miss can tell whether one ran while it was computing
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record Entry(byte[] json, byte[] gzipped, String etag, String gzipEtag, long[] itemIds, String visibility) {
+
+        boolean contains(long itemId) {
+            return Arrays.binarySearch(itemIds, itemId) >= 0;
+        }
+    }
+
+    public CatalogResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> key.length() + entry.json().length
+                        + (entry.gzipped() != null ? entry.gzipped().length : 0))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "catalog.responses");
+    }
+
+    /**
+     * Serves a catalog response from the cache, computing and storing it on a miss.
+     *
+     * @param request The current request; supplies the path and the If-None-Match / Accept-Encoding headers.
+     * @param authentication The caller, or null when anonymous.
+     * @param parameterNames The query parameters the endpoint reads; any others do not split the cache.
+     * @param body Computes the response body on a miss. Exceptions propagate and nothing is cached.
+     */
+    public ResponseEntity<byte[]> respond(HttpServletRequest request, Authentication authentication,
+                                          Collection<String> parameterNames, Supplier<?> body) {
+        String visibility = authentication != null ? "u:" + authentication.getName() : ANONYMOUS;
+        String key = key(request, visibility, parameterNames);
+        Entry entry = responses.getIfPresent(key);
+        if (entry == null) {
+            long generation = invalidations.get();
+            ReplicaReads.Tracked<?> computed = ReplicaReads.track(body);
+            entry = render(computed.value(), visibility);
+            if (!computed.fromLaggingReplica() && invalidations.get() == generation) {
+                responses.put(key, entry);
+                // An invalidation between the check and the put may have missed this entry
+                if (invalidations.get() != generation) {
+                    responses.invalidate(key);
+                }
+            }
+        }
+
+        boolean gzip = entry.gzipped() != null && acceptsGzip(request);
+        String etag = gzip ? entry.gzipEtag() : entry.etag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(authentication != null ? "private, no-cache" : "no-cache");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION));
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return new ResponseEntity<>(gzip ? entry.gzipped() : entry.json(), headers, HttpStatus.OK);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookableItemChanged(BookableItemChangedEvent event) {
+        invalidations.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        long itemId = event.bookableItemId();
+        invalidations.incrementAndGet();
+        responses.asMap().values().removeIf(entry -> entry.contains(itemId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        String visibility = "u:" + event.username();
+        invalidations.incrementAndGet();
+        responses.asMap().values().removeIf(entry -> entry.visibility().equals(visibility));
+    }
+
+    private static String key(HttpServletRequest request, String visibility, Collection<String> parameterNames) {
+        StringBuilder key = new StringBuilder(visibility).append('|').append(request.getRequestURI());
+        char separator = '?';
+        for (String name : parameterNames.stream().sorted().toList()) {
+            String[] values = request.getParameterValues(name);
+            if (values == null) {
+                continue;
+            }
+            for (String value : values) {
+                if (!value.isBlank()) {
+                    key.append(separator).append(name).append('=').append(value.trim());
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private Entry render(Object body, String visibility) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+        String hash = hash(json);
+        byte[] gzipped = json.length >= gzipMinBytes ? gzip(json) : null;
+        return new Entry(json, gzipped, "\"" + hash + "\"", "\"" + hash + "-gz\"", itemIds(body), visibility);
+    }
+
+    private static long[] itemIds(Object body) {
+        if (body instanceof BookableItemResponse item) {
+            return new long[]{item.id()};
+        }
+        if (body instanceof Collection<?> items) {
+            return items.stream()
+                    .filter(BookableItemResponse.class::isInstance)
+                    .mapToLong(item -> ((BookableItemResponse) item).id())
+                    .sorted()
+                    .toArray();
+        }
+        return new long[0];
+    }
+
+    // Either representation's ETag validates the entry; both are derived from the same JSON
+    private static boolean matches(String ifNoneMatch, Entry entry) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(entry.etag()) || candidate.equals(entry.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 18));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -7,36 +7,170 @@ import com.ronak.welcome.repository.CityRepository;
 import com.ronak.welcome.repository.CountryRepository;
 import com.ronak.welcome.repository.StateRepository;
 import com.ronak.welcome.service.CityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves country / state / city names to rows, creating missing ones.
+ *
+ * The whole geography (country -> state -> city ID, keyed by case-folded name) is held in memory,
+ * warmed at startup and extended whenever a row is created, so resolving a known city is a map lookup.
+ * Missing rows are created in their own transaction, so the cache never holds IDs of rows that a caller's
+ * transaction later rolled back. Concurrent creation of the same name in any letter case (also from other
+ * nodes) is settled by the unique indexes on lower(name) of countries, states and cities: the loser re-reads
+ * the winner's row.
+ *
+ * Cities are resolved before the caller's transaction starts and rejected inside one. A caller holding a
+ * connection while a missing row is inserted on a second one from the same pool could otherwise deadlock the
+ * pool: once every connection is held by such callers, none of them can get its second connection.
+ */
 @Service
 public class CityServiceImpl implements CityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityServiceImpl.class);
+
     private final CountryRepository countryRepo;
     private final StateRepository stateRepo;
     private final CityRepository cityRepo;
+    private final TransactionTemplate transactionTemplate;
 
-    public CityServiceImpl(CountryRepository countryRepo, StateRepository stateRepo, CityRepository cityRepo) {
+    private final Map<String, CountryNode> countries = new ConcurrentHashMap<>();
+
+    private record CountryNode(Long id, Map<String, StateNode> states) {
+        CountryNode(Long id) {
+            this(id, new ConcurrentHashMap<>());
+        }
+    }
+
+    private record StateNode(Long id, Map<String, Long> cities) {
+        StateNode(Long id) {
+            this(id, new ConcurrentHashMap<>());
+        }
+    }
+
+    public CityServiceImpl(CountryRepository countryRepo, StateRepository stateRepo, CityRepository cityRepo,
+                           PlatformTransactionManager transactionManager) {
         this.countryRepo = countryRepo;
         this.stateRepo = stateRepo;
         this.cityRepo = cityRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Long, CountryNode> countriesById = new HashMap<>();
+        for (Country country : countryRepo.findAll()) {
+            CountryNode node = new CountryNode(country.getId());
+            countries.put(key(country.getName()), node);
+            countriesById.put(country.getId(), node);
+        }
+        Map<Long, StateNode> statesById = new HashMap<>();
+        for (Object[] row : stateRepo.findAllIdsAndNames()) {
+            CountryNode country = countriesById.get((Long) row[2]);
+            if (country != null) {
+                StateNode node = new StateNode((Long) row[0]);
+                country.states().put(key((String) row[1]), node);
+                statesById.put(node.id(), node);
+            }
+        }
+        int cityCount = 0;
+        for (Object[] row : cityRepo.findAllIdsAndNames()) {
+            StateNode state = statesById.get((Long) row[2]);
+            if (state != null) {
+                state.cities().put(key((String) row[1]), (Long) row[0]);
+                cityCount++;
+            }
+        }
+        logger.info("Geography cache warmed with {} countries, {} states and {} cities.",
+                countriesById.size(), statesById.size(), cityCount);
     }
 
     @Override
-    public City resolveCity(City inputCity) {
-        Country country = countryRepo.findByNameIgnoreCase(inputCity.getState().getCountry().getName())
-                .orElseGet(() -> countryRepo.save(inputCity.getState().getCountry()));
+    public Long resolveCityId(City inputCity) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cities must be resolved before the caller's transaction starts");
+        }
+        String countryName = inputCity.getState().getCountry().getName().trim();
+        String stateName = inputCity.getState().getName().trim();
+        String cityName = inputCity.getName().trim();
+
+        CountryNode country = countries.get(key(countryName));
+        if (country == null) {
+            Long countryId = getOrCreate(
+                    () -> countryRepo.findByNameIgnoreCase(countryName).map(Country::getId),
+                    () -> {
+                        Country created = new Country();
+                        created.setName(countryName);
+                        return countryRepo.saveAndFlush(created).getId();
+                    });
+            country = countries.computeIfAbsent(key(countryName), k -> new CountryNode(countryId));
+        }
+
+        Long countryId = country.id();
+        StateNode state = country.states().get(key(stateName));
+        if (state == null) {
+            Long stateId = getOrCreate(
+                    () -> stateRepo.findByNameIgnoreCaseAndCountry(stateName, countryRepo.getReferenceById(countryId))
+                            .map(State::getId),
+                    () -> {
+                        State created = new State();
+                        created.setName(stateName);
+                        created.setCountry(countryRepo.getReferenceById(countryId));
+                        return stateRepo.saveAndFlush(created).getId();
+                    });
+            state = country.states().computeIfAbsent(key(stateName), k -> new StateNode(stateId));
+        }
+
+        Long stateId = state.id();
+        Long cityId = state.cities().get(key(cityName));
+        if (cityId == null) {
+            Long createdId = getOrCreate(
+                    () -> cityRepo.findByNameIgnoreCaseAndState(cityName, stateRepo.getReferenceById(stateId))
+                            .map(City::getId),
+                    () -> {
+                        City created = new City();
+                        created.setName(cityName);
+                        created.setState(stateRepo.getReferenceById(stateId));
+                        return cityRepo.saveAndFlush(created).getId();
+                    });
+            cityId = state.cities().computeIfAbsent(key(cityName), k -> createdId);
+        }
+        return cityId;
+    }
 
-        State state = stateRepo.findByNameIgnoreCaseAndCountry(inputCity.getState().getName(), country)
-                .orElseGet(() -> {
-                    inputCity.getState().setCountry(country);
-                    return stateRepo.save(inputCity.getState());
-                });
+    @Override
+    public City getReference(Long cityId) {
+        return cityRepo.getReferenceById(cityId);
+    }
 
-        return cityRepo.findByNameIgnoreCaseAndState(inputCity.getName(), state)
-                .orElseGet(() -> {
-                    inputCity.setState(state);
-                    return cityRepo.save(inputCity);
-                });
+    /**
+     * Finds the row or inserts it in a transaction of its own. If another transaction inserted the same row
+     * first, the unique constraint rejects ours and the winner's row is read in a fresh transaction.
+     */
+    private Long getOrCreate(Supplier<Optional<Long>> find, Supplier<Long> insert) {
+        try {
+            return transactionTemplate.execute(status -> find.get().orElseGet(insert));
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> find.get()
+                    .orElseThrow(() -> e));
+        }
     }
 
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
 }
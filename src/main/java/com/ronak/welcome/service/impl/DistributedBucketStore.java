@@ -0,0 +1,75 @@
+package com.ronak.welcome.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.service.BucketStore;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Keeps bucket state in a shared backend (see {@link ProxyManager}) so all app instances enforce one limit.
+ *
+ * Each instance holds a bounded cache of bucket proxies. When delayed synchronization is enabled, a proxy
+ * consumes tokens locally and only talks to the backend once it has accumulated
+ * {@code maxUnsynchronizedTokens} or {@code maxUnsynchronizedTimeout} has passed, so the hot path does not
+ * pay a network round trip per request. The cluster may then briefly over-admit by up to
+ * {@code maxUnsynchronizedTokens} per instance; a store built with 0 synchronizes on every request. Evicting a
+ * proxy only drops this instance's handle, the state stays in the backend.
+ */
+public class DistributedBucketStore implements BucketStore {
+
+    private final ProxyManager<String> proxyManager;
+    private final DelayParameters delayParameters; // null means every request synchronizes with the backend
+    private final Cache<String, Bucket> proxies;
+
+    public DistributedBucketStore(ProxyManager<String> proxyManager,
+                                  long maxUnsynchronizedTokens,
+                                  Duration maxUnsynchronizedTimeout,
+                                  long maxBuckets,
+                                  Duration idleEviction,
+                                  MeterRegistry meterRegistry) {
+        this(proxyManager, maxUnsynchronizedTokens, maxUnsynchronizedTimeout, maxBuckets, idleEviction,
+                "rateLimitBuckets", meterRegistry);
+    }
+
+    public DistributedBucketStore(ProxyManager<String> proxyManager,
+                                  long maxUnsynchronizedTokens,
+                                  Duration maxUnsynchronizedTimeout,
+                                  long maxBuckets,
+                                  Duration idleEviction,
+                                  String cacheName,
+                                  MeterRegistry meterRegistry) {
+        this.proxyManager = proxyManager;
+        this.delayParameters = maxUnsynchronizedTokens > 0
+                ? new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTimeout)
+                : null;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .recordStats();
+        if (maxBuckets > 0) {
+            builder.maximumSize(maxBuckets);
+        }
+        this.proxies = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, proxies, cacheName);
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return proxies.get(key, k -> {
+            RemoteBucketBuilder<String> builder = proxyManager.builder();
+            if (delayParameters != null) {
+                builder = builder.withOptimization(Optimizations.delaying(delayParameters));
+            }
+            return builder.build(k, configuration);
+        });
+    }
+}
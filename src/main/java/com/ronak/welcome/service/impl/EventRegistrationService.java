@@ -2,6 +2,7 @@
 package com.ronak.welcome.service.impl;
 
 import com.ronak.welcome.DTO.EventRegistrationResponse;
+import com.ronak.welcome.config.security.CurrentUserContext;
 import com.ronak.welcome.entity.Event;
 import com.ronak.welcome.entity.EventRegistration;
 import com.ronak.welcome.entity.User;
@@ -23,19 +24,26 @@ public class EventRegistrationService {
     private final EventRegistrationRepository registrationRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final CurrentUserContext currentUserContext;
 
     public EventRegistrationService(EventRegistrationRepository registrationRepository,
                                     UserRepository userRepository,
-                                    EventRepository eventRepository) {
+                                    EventRepository eventRepository,
+                                    CurrentUserContext currentUserContext) {
         this.registrationRepository = registrationRepository;
         this.userRepository = userRepository;
         this.eventRepository = eventRepository;
+        this.currentUserContext = currentUserContext;
+    }
+
+    // The registration only needs the foreign key, so an uninitialized reference is enough
+    private User currentUserReference(String username) {
+        return userRepository.getReferenceById(currentUserContext.require(username).getId());
     }
 
     @Transactional
     public EventRegistrationResponse registerForEvent(Long eventId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        User user = currentUserReference(username);
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with ID: " + eventId));
 
@@ -54,8 +62,7 @@ public class EventRegistrationService {
 
     @Transactional // ADDED: Ensures lazy-loaded user and event are accessible
     public List<EventRegistrationResponse> getUserRegistrations(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        User user = currentUserReference(username);
         // Accessing registration.getUser() and registration.getEvent() here now safe
         return registrationRepository.findByUser(user).stream()
                 .map(this::mapToEventRegistrationResponse)
@@ -74,8 +81,7 @@ public class EventRegistrationService {
 
     @Transactional
     public void unregisterFromEvent(Long eventId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        User user = currentUserReference(username);
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with ID: " + eventId));
 
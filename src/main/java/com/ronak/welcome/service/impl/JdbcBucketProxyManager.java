@@ -0,0 +1,129 @@
+package com.ronak.welcome.service.impl;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Compare-and-swap bucket backend stored in the rate_limit_buckets table.
+ * Works on both PostgreSQL and MySQL: every swap is a single optimistic UPDATE guarded by a version column,
+ * so no row locks are held between reading and writing the bucket state.
+ */
+public class JdbcBucketProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcBucketProxyManager.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleEvictionMillis;
+
+    public JdbcBucketProxyManager(JdbcTemplate jdbcTemplate, long idleEvictionMillis) {
+        super(ClientSideConfig.getDefault());
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleEvictionMillis = idleEvictionMillis;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            private long expectedVersion;
+
+            @Override
+            public Optional<byte[]> getStateData() {
+                List<byte[]> rows = jdbcTemplate.query(
+                        "SELECT state, version FROM rate_limit_buckets WHERE id = ?",
+                        (rs, rowNum) -> {
+                            expectedVersion = rs.getLong("version");
+                            return rs.getBytes("state");
+                        },
+                        key);
+                return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData) {
+                long now = System.currentTimeMillis();
+                if (originalData == null) {
+                    try {
+                        return jdbcTemplate.update(
+                                "INSERT INTO rate_limit_buckets (id, state, version, updated_at) VALUES (?, ?, 0, ?)",
+                                key, newData, now) == 1;
+                    } catch (DuplicateKeyException e) {
+                        return false; // Another instance created the bucket first; Bucket4j retries with fresh state
+                    }
+                }
+                return jdbcTemplate.update(
+                        "UPDATE rate_limit_buckets SET state = ?, version = version + 1, updated_at = ? WHERE id = ? AND version = ?",
+                        newData, now, key, expectedVersion) == 1;
+            }
+        };
+    }
+
+    // JDBC has no non-blocking driver here, so the async variants run the same statements on the calling thread
+    // and hand back already-completed futures. asAsync() stays disabled (see isAsyncModeSupported).
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return completed(operation::getStateData);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData) {
+                return completed(() -> operation.compareAndSwap(originalData, newData));
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE id = ?", key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return completed(() -> {
+            removeProxy(key);
+            return null;
+        });
+    }
+
+    // Every call blocks on JDBC, so callers are not offered an async view that would only pretend to be one
+    @Override
+    public boolean isAsyncModeSupported() {
+        return false;
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Deletes buckets that have not been touched for the idle eviction period.
+     * A deleted bucket is recreated full on the client's next request, exactly like the local store.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.sweep-interval-ms:300000}")
+    public void sweepIdleBuckets() {
+        int deleted = jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE updated_at < ?",
+                System.currentTimeMillis() - idleEvictionMillis);
+        if (deleted > 0) {
+            logger.debug("Swept {} idle rate limit buckets.", deleted);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ronak.welcome.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.service.BucketStore;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Keeps buckets in this JVM only. Each app instance enforces its own limit.
+ * The store is bounded: idle clients are evicted, and the hard cap keeps memory flat under scanning traffic.
+ * A store whose buckets must survive such traffic (see TOTP attempts) is built with maxBuckets 0, which
+ * leaves it bounded by idle time only.
+ */
+public class LocalBucketStore implements BucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalBucketStore(long maxBuckets, Duration idleEviction, MeterRegistry meterRegistry) {
+        this(maxBuckets, idleEviction, "rateLimitBuckets", meterRegistry);
+    }
+
+    public LocalBucketStore(long maxBuckets, Duration idleEviction, String cacheName, MeterRegistry meterRegistry) {
+        // An evicted bucket is simply recreated full on the client's next request. The idle timeout
+        // should therefore be at least the time needed to refill an empty bucket.
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .recordStats();
+        if (maxBuckets > 0) {
+            builder.maximumSize(maxBuckets);
+        }
+        this.buckets = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, cacheName);
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket4j.builder();
+            for (Bandwidth bandwidth : configuration.get().getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.events.OutboxPublishedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides when the OutboxProcessorService runs.
+ * The processor is woken right after a transaction that wrote an OutboxEvent commits,
+ * and a slow fixed-delay poll remains as a safety net (e.g., for events written by another node
+ * or left PENDING after a failed attempt).
+ * Wakeups are coalesced: a burst of commits results in at most one extra processing run,
+ * and runs never overlap.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxProcessorService outboxProcessorService;
+    private final SimpleAsyncTaskExecutor executor;
+
+    private final AtomicBoolean runRequested = new AtomicBoolean(false);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    public OutboxDispatcher(OutboxProcessorService outboxProcessorService, Environment environment) {
+        this.outboxProcessorService = outboxProcessorService;
+        // One short-lived thread per drain; a virtual thread when the app runs in virtual-thread mode
+        this.executor = new SimpleAsyncTaskExecutor("outbox-dispatcher-");
+        this.executor.setDaemon(true);
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    }
+
+    /**
+     * Wakes the processor once the transaction that wrote the outbox row has committed.
+     * If the event is published outside a transaction, it is handled immediately.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutboxEventPublished(OutboxPublishedEvent event) {
+        logger.debug("Outbox event of type {} committed, waking processor.", event.eventType());
+        requestRun();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.processor.poll-interval-ms:60000}")
+    public void pollSafetyNet() {
+        requestRun();
+    }
+
+    /**
+     * Requests a processing run. If a run is already in progress, another one is scheduled
+     * right after it finishes, so no committed event is missed.
+     */
+    public void requestRun() {
+        runRequested.set(true);
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (runRequested.getAndSet(false)) {
+                try {
+                    outboxProcessorService.processOutboxEvents();
+                } catch (Exception e) {
+                    logger.error("Outbox processing run failed: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A request may have arrived between the last check and releasing the drain flag.
+        if (runRequested.get()) {
+            requestRun();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
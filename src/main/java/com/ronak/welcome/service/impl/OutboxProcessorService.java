@@ -7,13 +7,13 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ronak.welcome.DTO.BookingResponse;
 import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.config.datasource.BackgroundWork;
 import com.ronak.welcome.entity.OutboxEvent;
 import com.ronak.welcome.repository.OutboxEventRepository;
 import com.ronak.welcome.service.EmailService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,15 +43,16 @@ public class OutboxProcessorService {
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
-    @Scheduled(fixedRate = 60000) // Runs every 60 seconds
+    // Triggered by OutboxDispatcher: right after an outbox write commits, plus a slow safety-net poll
+    @BackgroundWork
     @Transactional
     public void processOutboxEvents() {
-        logger.info("Starting Outbox Event processing...");
+        logger.debug("Starting Outbox Event processing...");
 
         List<OutboxEvent> pendingEvents = outboxEventRepository.findByStatusAndRetryCountLessThanOrderByCreatedAtAsc("PENDING", maxRetries);
 
         if (pendingEvents.isEmpty()) {
-            logger.info("No pending outbox events to process.");
+            logger.debug("No pending outbox events to process.");
             return;
         }
 
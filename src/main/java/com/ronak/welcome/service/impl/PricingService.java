@@ -0,0 +1,109 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.entity.BookableItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Quotes the current price of a bookable item.
+ *
+ * The base quote comes from the item's compiled {@link com.ronak.welcome.util.PriceSchedule}. When surge
+ * pricing is enabled it is multiplied by a demand factor built from three live signals, each scaled to 0..1
+ * and weighted:
+ * <ul>
+ *     <li>velocity: net bookings in the last {@code window-minutes} (from {@link BookingVelocityTracker}),
+ *     relative to {@code velocity-saturation}</li>
+ *     <li>scarcity: how far the share of capacity already booked is past {@code scarcity-threshold}</li>
+ *     <li>urgency: how far inside the last {@code urgency-hours} before the item starts we are</li>
+ * </ul>
+ * The factor is capped at {@code max-multiplier} and never lowers the price.
+ */
+@Service
+public class PricingService {
+
+    private final BookingVelocityTracker velocityTracker;
+    private final Clock clock;
+
+    @Value("${app.pricing.surge.enabled:false}")
+    private boolean surgeEnabled;
+
+    @Value("${app.pricing.surge.velocity-saturation:20}")
+    private int velocitySaturation;
+
+    @Value("${app.pricing.surge.velocity-weight:0.25}")
+    private double velocityWeight;
+
+    @Value("${app.pricing.surge.scarcity-threshold:0.7}")
+    private double scarcityThreshold;
+
+    @Value("${app.pricing.surge.scarcity-weight:0.25}")
+    private double scarcityWeight;
+
+    @Value("${app.pricing.surge.urgency-hours:48}")
+    private long urgencyHours;
+
+    @Value("${app.pricing.surge.urgency-weight:0.1}")
+    private double urgencyWeight;
+
+    @Value("${app.pricing.surge.max-multiplier:1.5}")
+    private double maxMultiplier;
+
+    @Autowired
+    public PricingService(BookingVelocityTracker velocityTracker) {
+        this(velocityTracker, Clock.systemDefaultZone());
+    }
+
+    PricingService(BookingVelocityTracker velocityTracker, Clock clock) {
+        this.velocityTracker = velocityTracker;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether {@link #quote} uses the booking count, so callers can skip counting when it does not.
+     */
+    public boolean needsBookingCount(BookableItem item) {
+        return surgeEnabled || !item.getPriceSchedule().isEmpty();
+    }
+
+    /**
+     * @param item The item to price.
+     * @param activeBookings The item's CONFIRMED and PENDING bookings; ignored when {@link #needsBookingCount} is false.
+     * @return The price a booking made now would be charged.
+     */
+    public double quote(BookableItem item, long activeBookings) {
+        double price = item.getPriceSchedule().priceAt(clock, activeBookings);
+        if (!surgeEnabled || price <= 0) {
+            return price;
+        }
+        double multiplier = surgeMultiplier(item, activeBookings);
+        return multiplier == 1.0 ? price : Math.round(price * multiplier * 100) / 100.0;
+    }
+
+    private double surgeMultiplier(BookableItem item, long activeBookings) {
+        double velocity = velocitySaturation > 0
+                ? Math.min(1.0, (double) velocityTracker.recentBookings(item.getId()) / velocitySaturation)
+                : 0;
+
+        double scarcity = 0;
+        if (item.getCapacity() > 0 && scarcityThreshold < 1.0) {
+            double booked = Math.min(1.0, (double) activeBookings / item.getCapacity());
+            scarcity = Math.max(0, (booked - scarcityThreshold) / (1.0 - scarcityThreshold));
+        }
+
+        double urgency = 0;
+        if (urgencyHours > 0 && item.getStartTime() != null) {
+            Duration untilStart = Duration.between(LocalDateTime.now(clock), item.getStartTime());
+            if (!untilStart.isNegative()) {
+                urgency = Math.max(0, 1.0 - (double) untilStart.toMinutes() / Duration.ofHours(urgencyHours).toMinutes());
+            }
+        }
+
+        double multiplier = 1.0 + velocityWeight * velocity + scarcityWeight * scarcity + urgencyWeight * urgency;
+        return Math.min(multiplier, Math.max(1.0, maxMultiplier));
+    }
+}
@@ -1,26 +1,41 @@
 // src/main/java/com/ronak/welcome/service/RateLimiterService.java
 package com.ronak.welcome.service.impl; // <<<--- THIS MUST BE THE PACKAGE DECLARATION
 
+import com.ronak.welcome.config.RateLimitPolicyProperties;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.service.BucketStore;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 public class RateLimiterService {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
 
-    // Map to store a Bucket for each client (identified by IP address or user ID)
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Where bucket state lives (this JVM or a shared backend), see RateLimitBackendConfiguration
+    private final BucketStore bucketStore;
+    private final RateLimitPolicyProperties policyProperties;
+
+    private final Counter rejections;
+
+    // Bucket configurations are built once; the suppliers are reused so resolving a bucket allocates nothing
+    private Supplier<BucketConfiguration> defaultConfiguration;
+    private final Map<Role, Supplier<BucketConfiguration>> tierConfigurations = new EnumMap<>(Role.class);
 
     @Value("${app.rate-limit.capacity:100}")
     private long capacity; // Max tokens in the bucket (max requests in a burst)
@@ -34,41 +49,69 @@ public class RateLimiterService {
     @Value("${app.rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
 
+    public RateLimiterService(BucketStore bucketStore,
+                              RateLimitPolicyProperties policyProperties,
+                              MeterRegistry meterRegistry) {
+        this.bucketStore = bucketStore;
+        this.policyProperties = policyProperties;
+        this.rejections = Counter.builder("rate.limit.rejections")
+                .description("Requests rejected because the client's bucket was empty")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void buildTierConfigurations() {
+        BucketConfiguration base = createBucketConfiguration(capacity, refillRate, durationSeconds);
+        this.defaultConfiguration = () -> base;
+        policyProperties.getTiers().forEach((role, tier) -> {
+            BucketConfiguration configuration = createBucketConfiguration(
+                    tier.getCapacity(), tier.getRefillRate(), tier.getDurationSeconds());
+            tierConfigurations.put(role, () -> configuration);
+        });
+    }
+
     /**
-     * Attempts to consume a token for the given client.
+     * Attempts to consume tokens for the given client.
      *
-     * @param clientId The identifier for the client (e.g., IP address, user ID).
-     * @return true if a token was consumed (request allowed), false otherwise (request rate-limited).
+     * @param clientKey The client's identity (e.g., "ip:10.0.0.1", "user:alice").
+     * @param tier The role whose limits apply, or null for the base (anonymous) limits. It is part of the bucket
+     *             key, so a user whose role changes moves to a fresh bucket with the new tier's limits.
+     * @param cost The number of tokens the request costs.
+     * @return true if the tokens were consumed (request allowed), false otherwise (request rate-limited).
      */
-    public boolean tryConsumeToken(String clientId) {
+    public boolean tryConsumeTokens(String clientKey, Role tier, int cost) {
         if (!rateLimitEnabled) {
             return true; // Rate limiting is disabled, always allow
         }
 
-        // Get or create a bucket for the client
-        Bucket bucket = buckets.computeIfAbsent(clientId, this::createNewBucket);
+        Supplier<BucketConfiguration> configuration = tier != null
+                ? tierConfigurations.getOrDefault(tier, defaultConfiguration)
+                : defaultConfiguration;
+
+        // Get or create a bucket for the client. The configuration only applies when a bucket is created,
+        // so the tier must be in the key (e.g. "user:alice@ADMIN") for a promotion or demotion to take effect
+        String bucketKey = tier != null ? clientKey + "@" + tier.name() : clientKey;
+        Bucket bucket = bucketStore.resolve(bucketKey, configuration);
 
-        // Try to consume one token
-        boolean consumed = bucket.tryConsume(1);
+        boolean consumed = bucket.tryConsume(cost);
         if (!consumed) {
-            logger.warn("Rate limit exceeded for client: {}", clientId);
+            rejections.increment();
+            logger.warn("Rate limit exceeded for client: {}", clientKey);
         }
         return consumed;
     }
 
     /**
-     * Creates a new token bucket with the configured capacity and refill rate.
+     * Creates a bucket configuration with the given capacity and refill rate.
      * Uses Bucket4j library for robust token bucket implementation.
      *
-     * @param clientId The ID of the client for whom the bucket is created.
-     * @return A configured Bucket instance.
+     * @return The configuration for a new client's bucket.
      */
-    private Bucket createNewBucket(String clientId) {
-        logger.info("Creating new rate limit bucket for client: {}", clientId);
+    private BucketConfiguration createBucketConfiguration(long capacity, long refillRate, long durationSeconds) {
         // Define the refill strategy: refillRate tokens every durationSeconds
         Refill refill = Refill.greedy(refillRate, Duration.ofSeconds(durationSeconds));
         // Define the bandwidth: capacity tokens, refilled according to the refill strategy
         Bandwidth limit = Bandwidth.classic(capacity, refill);
-        return Bucket4j.builder().addLimit(limit).build();
+        return Bucket4j.configurationBuilder().addLimit(limit).build();
     }
 }
@@ -2,14 +2,14 @@ package com.ronak.welcome.service.impl;
 
 import com.ronak.welcome.DTO.BookableItemResponse;
 import com.ronak.welcome.DTO.PriceTier;
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.config.security.CurrentUserContext;
 import com.ronak.welcome.entity.BookableItem;
 import com.ronak.welcome.entity.Event; // Needed for eventSpecificField
-import com.ronak.welcome.entity.User;
 import com.ronak.welcome.enums.BookableItemType;
-import com.ronak.welcome.enums.Role;
 import com.ronak.welcome.exception.ResourceNotFoundException;
 import com.ronak.welcome.repository.BookableItemRepository;
-import com.ronak.welcome.repository.UserRepository;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +21,14 @@ import java.util.stream.Collectors;
 public class RecommendationService {
 
     private final BookableItemRepository bookableItemRepository;
-    private final UserRepository userRepository; // Needed for private item access checks
+    private final CurrentUserContext currentUserContext; // Needed for private item access checks
+    private final BookableItemVisibility visibility;
 
-    public RecommendationService(BookableItemRepository bookableItemRepository, UserRepository userRepository) {
+    public RecommendationService(BookableItemRepository bookableItemRepository, CurrentUserContext currentUserContext,
+                                 BookableItemVisibility visibility) {
         this.bookableItemRepository = bookableItemRepository;
-        this.userRepository = userRepository;
+        this.currentUserContext = currentUserContext;
+        this.visibility = visibility;
     }
 
     /**
@@ -46,34 +49,25 @@ public class RecommendationService {
         BookableItem targetItem = bookableItemRepository.findById(bookableItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Target bookable item not found with ID: " + bookableItemId));
 
+        AuthenticatedUser currentUser = currentUserContext.resolve(currentUsername).orElse(null);
+
         // Ensure the current user has access to the target item (if it's private)
         if (targetItem.isPrivate()) {
-            User currentUser = userRepository.findByUsername(currentUsername)
-                    .orElseThrow(() -> new ResourceNotFoundException("Current user not found: " + currentUsername));
-
-            if (!targetItem.getProvider().getId().equals(currentUser.getId()) && !currentUser.getRoles().contains(Role.ADMIN)) {
+            if (currentUser == null) {
+                throw new ResourceNotFoundException("Current user not found: " + currentUsername);
+            }
+            if (!visibility.canView(targetItem, currentUser)) {
                 throw new SecurityException("You are not authorized to get recommendations for this private item.");
             }
         }
 
-        // Get all other bookable items
-        List<BookableItem> allOtherItems = bookableItemRepository.findAll().stream()
+        // Get all other bookable items the current user may see
+        List<BookableItem> allOtherItems = visibility.findVisible(currentUser, null, Sort.unsorted()).stream()
                 .filter(item -> !item.getId().equals(bookableItemId)) // Exclude the target item itself
                 .collect(Collectors.toList());
 
-        User currentUser = currentUsername != null && !currentUsername.isEmpty() ?
-                userRepository.findByUsername(currentUsername).orElse(null) :
-                null;
-
-        // Filter and sort based on similarity
+        // Sort based on similarity
         return allOtherItems.stream()
-                .filter(item -> {
-                    // Filter out private items not accessible by the current user
-                    if (item.isPrivate()) {
-                        return currentUser != null && (item.getProvider().getId().equals(currentUser.getId()) || currentUser.getRoles().contains(Role.ADMIN));
-                    }
-                    return true; // Public items are always visible
-                })
                 .sorted(Comparator
                         .comparing((BookableItem item) -> calculateSimilarity(targetItem, item))
                         .reversed()) // Sort by similarity in descending order
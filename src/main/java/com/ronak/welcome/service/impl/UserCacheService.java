@@ -0,0 +1,128 @@
+package com.ronak.welcome.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.DTO.UserSnapshot;
+import com.ronak.welcome.config.datasource.ReplicaReads;
+import com.ronak.welcome.events.UserChangedEvent;
+import com.ronak.welcome.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of {@link UserSnapshot}s in front of UserRepository.findByUsername / findByEmail.
+ *
+ * Entries are evicted when a user changes (see {@link UserChangedEvent}), after the change commits. A lookup
+ * that loaded the row before then could still store the old snapshot (old password hash and roles) after the
+ * eviction, so a lookup only stores what it loaded if no eviction ran in the meantime and the row did not come
+ * from a lagging replica. The TTL only bounds staleness for changes made on other nodes. Lookups that find no
+ * user are not cached, so a freshly registered user is visible immediately. Hit rate is exported under the
+ * "users" cache name.
+ */
+@Service
+public class UserCacheService {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${app.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Keyed by "u:<username>" and "e:<email>"; both keys point to the same snapshot
+    private Cache<String, UserSnapshot> snapshots;
+
+    // Bumped before every eviction, so a lookup can tell whether one ran while it was loading
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCacheService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "users");
+    }
+
+    public Optional<UserSnapshot> findByUsername(String username) {
+        UserSnapshot cached = snapshots.getIfPresent(usernameKey(username));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(() -> userRepository.findByUsername(username).map(UserSnapshot::of));
+    }
+
+    /**
+     * Resolves a login identifier the same way as the login form: by username first, then by email.
+     */
+    public Optional<UserSnapshot> findByUsernameOrEmail(String usernameOrEmail) {
+        UserSnapshot cached = snapshots.getIfPresent(usernameKey(usernameOrEmail));
+        if (cached == null) {
+            cached = snapshots.getIfPresent(emailKey(usernameOrEmail));
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(() -> userRepository.findByUsername(usernameOrEmail)
+                .or(() -> userRepository.findByEmail(usernameOrEmail))
+                .map(UserSnapshot::of));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictions.incrementAndGet();
+        snapshots.invalidate(usernameKey(event.username()));
+        snapshots.invalidate(emailKey(event.email()));
+    }
+
+    private Optional<UserSnapshot> load(Supplier<Optional<UserSnapshot>> lookup) {
+        long generation = evictions.get();
+        ReplicaReads.Tracked<Optional<UserSnapshot>> loaded = ReplicaReads.track(lookup);
+        loaded.value().ifPresent(snapshot -> {
+            if (!loaded.fromLaggingReplica() && evictions.get() == generation) {
+                store(snapshot);
+                // An eviction between the check and the puts may have missed these entries
+                if (evictions.get() != generation) {
+                    evict(snapshot);
+                }
+            }
+        });
+        return loaded.value();
+    }
+
+    private void store(UserSnapshot snapshot) {
+        snapshots.put(usernameKey(snapshot.username()), snapshot);
+        snapshots.put(emailKey(snapshot.email()), snapshot);
+    }
+
+    private void evict(UserSnapshot snapshot) {
+        snapshots.invalidate(usernameKey(snapshot.username()));
+        snapshots.invalidate(emailKey(snapshot.email()));
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + username;
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + email;
+    }
+}
@@ -0,0 +1,396 @@
+package com.ronak.welcome.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronak.welcome.DTO.UserImportResult;
+import com.ronak.welcome.DTO.UserImportRow;
+import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.config.datasource.BackgroundWork;
+import com.ronak.welcome.entity.Address;
+import com.ronak.welcome.entity.City;
+import com.ronak.welcome.entity.Country;
+import com.ronak.welcome.entity.OutboxEvent;
+import com.ronak.welcome.entity.State;
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.AddressType;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.events.OutboxPublishedEvent;
+import com.ronak.welcome.repository.OutboxEventRepository;
+import com.ronak.welcome.repository.UserRepository;
+import com.ronak.welcome.service.CityService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users in bulk from an NDJSON or CSV upload.
+ *
+ * The upload is read as a stream and processed in chunks of {@code chunk-size} records, so memory use does
+ * not depend on the upload size. Per chunk: one query finds usernames and emails that already exist,
+ * passwords are hashed in parallel, and users, roles, addresses and USER_CREATED outbox events are
+ * persisted in a single transaction that Hibernate flushes as JDBC batch inserts. Invalid or duplicate rows are skipped and
+ * reported; they never fail the rest of the import. A chunk that fails as a whole (a concurrent registration,
+ * no connection, a failed commit) is rolled back and all its rows are reported; later chunks still run.
+ *
+ * Nothing is kept across chunks except the counters and up to {@code max-reported-errors} row errors.
+ * Duplicates within a chunk are caught in memory. A row repeating one from an earlier chunk is caught by the
+ * existence query, since that chunk has committed by then.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final List<String> CSV_COLUMNS = List.of(
+            "username", "email", "password", "roles", "street", "zipCode", "addressType", "city", "state", "country");
+
+    private final UserRepository userRepository;
+    private final CityService cityService;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.users.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.import.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Separate from the login hashing pool, so an import cannot fill its queue and turn logins away
+    private ForkJoinPool hashingPool;
+
+    private record NumberedRow(long number, UserImportRow row) {}
+
+    public UserImportService(UserRepository userRepository, CityService cityService,
+                             PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
+                             OutboxEventRepository outboxEventRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.cityService = cityService;
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    @BackgroundWork
+    public UserImportResult importUsers(InputStream input, boolean csv) throws IOException {
+        Progress progress = new Progress();
+        // Usernames and emails already accepted into the current chunk
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvHeader = csv ? readCsvHeader(reader) : null;
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowNumber++;
+                progress.processed++;
+                UserImportRow row;
+                try {
+                    row = csv ? parseCsvRow(csvHeader, line) : objectMapper.readValue(line, UserImportRow.class);
+                } catch (Exception e) {
+                    progress.fail(rowNumber, null, "Malformed record: " + e.getMessage());
+                    continue;
+                }
+                String error = validate(row, seenUsernames, seenEmails);
+                if (error != null) {
+                    progress.fail(rowNumber, row.username(), error);
+                    continue;
+                }
+                chunk.add(new NumberedRow(rowNumber, row));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                    seenUsernames.clear();
+                    seenEmails.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        logger.info("User import finished: {} processed, {} imported, {} failed.",
+                progress.processed, progress.imported, progress.failed);
+        return new UserImportResult(progress.processed, progress.imported, progress.failed, progress.errors);
+    }
+
+    private void importChunk(List<NumberedRow> chunk, Progress progress) {
+        List<NumberedRow> rows = chunk;
+        try {
+            rows = withoutExistingUsers(chunk, progress);
+            if (!rows.isEmpty()) {
+                importRows(rows);
+                progress.imported += rows.size();
+            }
+        } catch (RuntimeException e) {
+            // A user registered concurrently with the same username or email, no background connection within
+            // the pool timeout, a failed commit... The chunk is rolled back and the import goes on with the next one
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("User import chunk starting at row {} failed: {}", rows.get(0).number(), cause);
+            for (NumberedRow numbered : rows) {
+                progress.fail(numbered.number(), numbered.row().username(), "Import of this chunk failed: " + cause);
+            }
+        }
+        logger.info("User import progress: {} processed, {} imported, {} failed.",
+                progress.processed, progress.imported, progress.failed);
+    }
+
+    private void importRows(List<NumberedRow> rows) {
+        List<String> hashes = hashingPool.submit(() -> rows.parallelStream()
+                .map(numbered -> passwordEncoder.encode(numbered.row().password()))
+                .toList()).join();
+
+        // Before the chunk's transaction: creating a missing city takes a connection of its own
+        List<Long> cityIds = rows.stream()
+                .map(numbered -> numbered.row().hasAddress() ? cityService.resolveCityId(city(numbered.row())) : null)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> writeChunk(rows, hashes, cityIds));
+    }
+
+    // One set query for the whole chunk instead of existsByUsername / existsByEmail per row
+    private List<NumberedRow> withoutExistingUsers(List<NumberedRow> chunk, Progress progress) {
+        List<String> usernames = chunk.stream().map(numbered -> numbered.row().username()).toList();
+        List<String> emails = chunk.stream().map(numbered -> numbered.row().email()).toList();
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        for (Object[] existing : userRepository.findUsernamesAndEmailsIn(usernames, emails)) {
+            existingUsernames.add((String) existing[0]);
+            existingEmails.add((String) existing[1]);
+        }
+
+        List<NumberedRow> rows = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+            if (existingUsernames.contains(numbered.row().username())) {
+                progress.fail(numbered.number(), numbered.row().username(), "Username already exists");
+            } else if (existingEmails.contains(numbered.row().email())) {
+                progress.fail(numbered.number(), numbered.row().username(), "Email already exists");
+            } else {
+                rows.add(numbered);
+            }
+        }
+        return rows;
+    }
+
+    // IDs come from pooled sequences, so persisting assigns them without an insert round trip and Hibernate
+    // flushes users, roles, addresses and outbox rows as JDBC batches (hibernate.jdbc.batch_size) at commit
+    private void writeChunk(List<NumberedRow> rows, List<String> hashes, List<Long> cityIds) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRow row = rows.get(i).row();
+            User user = new User();
+            user.setUsername(row.username());
+            user.setEmail(row.email());
+            user.setPassword(hashes.get(i));
+            user.setRoles(roles(row));
+            if (row.hasAddress()) {
+                Address address = new Address();
+                address.setUser(user);
+                address.setStreet(row.street());
+                address.setZipCode(row.zipCode());
+                address.setAddressType(row.addressType());
+                address.setCity(cityService.getReference(cityIds.get(i)));
+                user.setAddresses(List.of(address));
+            }
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+
+        List<OutboxEvent> events = new ArrayList<>(users.size());
+        for (User user : users) {
+            String payload = toJson(new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRoles()));
+            events.add(new OutboxEvent("USER_CREATED", payload, user.getEmail()));
+        }
+        outboxEventRepository.saveAll(events);
+        // One wakeup for the whole chunk; OutboxDispatcher runs after this transaction commits
+        eventPublisher.publishEvent(new OutboxPublishedEvent("USER_CREATED"));
+    }
+
+    private String validate(UserImportRow row, Set<String> seenUsernames, Set<String> seenEmails) {
+        if (row.username() == null || row.username().isBlank()) {
+            return "Username is required";
+        }
+        if (row.email() == null || !EMAIL.matcher(row.email()).matches()) {
+            return "A valid email is required";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Password is required";
+        }
+        if (row.hasAddress() && (isBlank(row.state()) || isBlank(row.country()))) {
+            return "Address requires city, state and country";
+        }
+        if (!seenUsernames.add(row.username())) {
+            return "Duplicate username in upload";
+        }
+        if (!seenEmails.add(row.email())) {
+            seenUsernames.remove(row.username());
+            return "Duplicate email in upload";
+        }
+        return null;
+    }
+
+    private static Set<Role> roles(UserImportRow row) {
+        return row.roles() == null || row.roles().isEmpty() ? EnumSet.of(Role.USER) : EnumSet.copyOf(row.roles());
+    }
+
+    private static City city(UserImportRow row) {
+        Country country = new Country();
+        country.setName(row.country());
+        State state = new State();
+        state.setName(row.state());
+        state.setCountry(country);
+        City city = new City();
+        city.setName(row.city());
+        city.setState(state);
+        return city;
+    }
+
+    private String toJson(UserResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize USER_CREATED payload", e);
+        }
+    }
+
+    private static Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return Map.of();
+        }
+        List<String> columns = parseCsvLine(header);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim();
+            if (CSV_COLUMNS.contains(column)) {
+                indexes.put(column, i);
+            }
+        }
+        return indexes;
+    }
+
+    private static UserImportRow parseCsvRow(Map<String, Integer> header, String line) {
+        List<String> values = parseCsvLine(line);
+        String roles = csvValue(header, values, "roles");
+        String addressType = csvValue(header, values, "addressType");
+        return new UserImportRow(
+                csvValue(header, values, "username"),
+                csvValue(header, values, "email"),
+                csvValue(header, values, "password"),
+                roles == null ? null : Arrays.stream(roles.split(";"))
+                        .map(String::trim)
+                        .filter(role -> !role.isEmpty())
+                        .map(role -> Role.valueOf(role.toUpperCase(Locale.ROOT)))
+                        .collect(() -> EnumSet.noneOf(Role.class), Set::add, Set::addAll),
+                csvValue(header, values, "street"),
+                csvValue(header, values, "zipCode"),
+                addressType == null ? null : AddressType.valueOf(addressType.toUpperCase(Locale.ROOT)),
+                csvValue(header, values, "city"),
+                csvValue(header, values, "state"),
+                csvValue(header, values, "country"));
+    }
+
+    private static String csvValue(Map<String, Integer> header, List<String> values, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields on a single line: comma-separated, optionally double-quoted, "" escapes a quote
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private final class Progress {
+        long processed;
+        long imported;
+        long failed;
+        final List<UserImportResult.RowError> errors = new ArrayList<>();
+
+        void fail(long row, String username, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportResult.RowError(row, username, message));
+            }
+        }
+    }
+}
@@ -5,51 +5,89 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ronak.welcome.DTO.UserPageResponse;
 import com.ronak.welcome.DTO.UserResponse;
+import com.ronak.welcome.DTO.UserSnapshot;
 import com.ronak.welcome.DTO.UserUpdateRequest;
 import com.ronak.welcome.entity.Address;
-import com.ronak.welcome.entity.City;
 import com.ronak.welcome.entity.OutboxEvent;
 import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.events.OutboxPublishedEvent;
+import com.ronak.welcome.events.UserChangedEvent;
 import com.ronak.welcome.exception.ResourceNotFoundException;
 import com.ronak.welcome.exception.UserAlreadyExistsException;
 import com.ronak.welcome.repository.OutboxEventRepository;
 import com.ronak.welcome.repository.UserRepository;
+import com.ronak.welcome.service.CityService;
 import com.ronak.welcome.service.EmailService; // Keep this import
+import com.ronak.welcome.service.RefreshTokenService;
 import com.ronak.welcome.service.UserService;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
 public class UserServiceImpl implements UserService {
     public final UserRepository userRepository;
     private final EmailService emailService;
-    private final CityServiceImpl cityService;
+    private final CityService cityService;
     private final OutboxEventRepository outboxEventRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCacheService userCacheService;
+    private final RefreshTokenService refreshTokenService;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.users.page.max-size:200}")
+    private int maxPageSize;
 
     public UserServiceImpl(UserRepository userRepository, EmailService emailService,
-                           CityServiceImpl cityService, OutboxEventRepository outboxEventRepository,
-                           PasswordEncoder passwordEncoder) {
+                           CityService cityService, OutboxEventRepository outboxEventRepository,
+                           PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
+                           UserCacheService userCacheService, RefreshTokenService refreshTokenService,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.emailService = emailService;
         this.cityService = cityService;
         this.outboxEventRepository = outboxEventRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.userCacheService = userCacheService;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
+    // Not transactional itself: cities are resolved first, and creating a missing one must not happen while
+    // the user's transaction holds a connection (see CityServiceImpl)
     @Override
-    @Transactional
     public User createUser(User user) {
+        List<Long> cityIds = new ArrayList<>();
+        if (user.getAddresses() != null) {
+            for (Address address : user.getAddresses()) {
+                cityIds.add(cityService.resolveCityId(address.getCity()));
+            }
+        }
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        return transactionTemplate.execute(status -> insertUser(user, cityIds));
+    }
+
+    private User insertUser(User user, List<Long> cityIds) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new UserAlreadyExistsException("User " + user.getUsername() + " already exists");
         }
@@ -57,24 +95,22 @@ public class UserServiceImpl implements UserService {
             throw new UserAlreadyExistsException("User with email " + user.getEmail() + " already exists");
         }
 
-        String encodedPassword = passwordEncoder.encode(user.getPassword());
-        user.setPassword(encodedPassword);
-
         if (user.getAddresses() != null) {
-            for (Address address : user.getAddresses()) {
+            for (int i = 0; i < user.getAddresses().size(); i++) {
+                Address address = user.getAddresses().get(i);
                 address.setUser(user);
-                City resolvedCity = cityService.resolveCity(address.getCity());
-                address.setCity(resolvedCity);
+                address.setCity(cityService.getReference(cityIds.get(i)));
             }
         }
 
         User savedUser = userRepository.save(user);
 
-        UserResponse userResponsePayload = new UserResponse(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail(), savedUser.getRoles(),savedUser.getManagedItemTypes());
+        UserResponse userResponsePayload = mapToUserResponse(savedUser);
         try {
             String payloadJson = objectMapper.writeValueAsString(userResponsePayload);
             OutboxEvent event = new OutboxEvent("USER_CREATED", payloadJson, savedUser.getEmail());
             outboxEventRepository.save(event);
+            eventPublisher.publishEvent(new OutboxPublishedEvent(event.getEventType()));
         } catch (JsonProcessingException e) {
             System.err.println("Failed to create OutboxEvent for user creation " + savedUser.getId() + ": " + e.getMessage());
         }
@@ -85,14 +121,15 @@ public class UserServiceImpl implements UserService {
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
-        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(),user.getManagedItemTypes());
+        return mapToUserResponse(user);
     }
 
     @Override
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(user -> new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(),user.getManagedItemTypes()))
-                .collect(Collectors.toList());
+    public UserPageResponse getUsers(Long afterId, Integer limit, Role role, String emailPrefix) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<UserResponse> users = userRepository.findUserPage(afterId, pageSize, role, emailPrefix);
+        Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).id() : null;
+        return new UserPageResponse(users, nextCursor);
     }
 
     @Override
@@ -110,29 +147,64 @@ public class UserServiceImpl implements UserService {
             throw new UserAlreadyExistsException("Email " + userUpdateRequest.email() + " already taken");
         }
 
+        UserChangedEvent changedEvent = new UserChangedEvent(existingUser.getId(), existingUser.getUsername(), existingUser.getEmail());
+        boolean usernameChanged = !existingUser.getUsername().equals(userUpdateRequest.username());
+        boolean rolesChanged = userUpdateRequest.roles() != null && !userUpdateRequest.roles().isEmpty()
+                && !userUpdateRequest.roles().equals(existingUser.getRoles());
+
         existingUser.setUsername(userUpdateRequest.username());
         existingUser.setEmail(userUpdateRequest.email());
-        if (userUpdateRequest.roles() != null && !userUpdateRequest.roles().isEmpty()) {
+        if (rolesChanged) {
             existingUser.setRoles(userUpdateRequest.roles());
         }
+        // Access tokens embed the username and roles, so tokens issued before this change must stop working
+        if (usernameChanged || rolesChanged) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+        }
+        eventPublisher.publishEvent(changedEvent);
 
         User updatedUser = userRepository.save(existingUser);
-        return new UserResponse(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getEmail(), updatedUser.getRoles(),updatedUser.getManagedItemTypes());
+        return mapToUserResponse(updatedUser);
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with ID: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
+        refreshTokenService.deleteByUserId(user.getId());
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail()));
     }
 
     @Override
     public UserResponse getCurrentUser(String username) {
-        User user = userRepository.findByUsername(username)
+        UserSnapshot user = userCacheService.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found: " + username));
-        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(),user.getManagedItemTypes());
+        return new UserResponse(user.id(), user.username(), user.email(), user.roles());
+    }
+
+    @Override
+    @Transactional
+    public UserSnapshot updateTotpSecret(String username, String totpSecret) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        user.setTotpSecret(totpSecret);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail()));
+        return UserSnapshot.of(userRepository.save(user));
+    }
+
+    @Override
+    @Transactional
+    public void enableTotp(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        user.setTotpEnabled(true);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail()));
+    }
+
+    private UserResponse mapToUserResponse(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRoles());
     }
 }
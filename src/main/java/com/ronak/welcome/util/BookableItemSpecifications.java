@@ -117,4 +117,30 @@ public class BookableItemSpecifications {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.isFalse(root.get("isPrivate"));
     }
+
+    /**
+     * Specification for the private items of one provider.
+     * Both columns are covered by idx_bookable_items_provider_private.
+     * @param providerId The ID of the provider.
+     * @return A Specification for the provider's private items.
+     */
+    public static Specification<BookableItem> isPrivateOfProvider(Long providerId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("provider").get("id"), providerId),
+                criteriaBuilder.isTrue(root.get("isPrivate")));
+    }
+
+    /**
+     * Specification to filter by the provider's ID.
+     * Compares the provider_id foreign key directly, so no User entity has to be loaded or joined.
+     * @param providerId The ID of the provider.
+     * @return A Specification for provider filtering.
+     */
+    public static Specification<BookableItem> hasProviderId(Long providerId) {
+        if (providerId == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("provider").get("id"), providerId);
+    }
 }
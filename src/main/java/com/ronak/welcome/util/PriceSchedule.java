@@ -0,0 +1,204 @@
+package com.ronak.welcome.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.DTO.PriceTier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable, precompiled form of an item's {@link PriceTier} list.
+ *
+ * Tier start and end dates split the timeline into segments; within each segment the tier minimum and
+ * maximum quantities split the booking count into steps, and each step stores the price of the first tier
+ * (ordered by start date, then max quantity) that applies there. Evaluating is two binary searches over
+ * primitive arrays and does not allocate.
+ *
+ * Times are compared as local wall-clock milliseconds, matching the zone-less {@link LocalDateTime}
+ * tier bounds. Both tier bounds are inclusive, as before.
+ *
+ * Compiled schedules are shared through {@link #of}: every session loads a new entity instance, including from
+ * the second-level cache, but the tier list and base price of an unchanged item are equal each time.
+ */
+public final class PriceSchedule {
+
+    private static final long[] NO_BOUNDS = new long[0];
+    private static final int MAX_CACHED_SCHEDULES = 10_000;
+
+    // Changed tiers or price give a different key, so entries never go stale; unused ones are evicted by size
+    private static final Cache<Key, PriceSchedule> COMPILED = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SCHEDULES)
+            .build();
+
+    private record Key(List<PriceTier> tiers, double basePrice) {}
+    private static final Comparator<PriceTier> TIER_ORDER = Comparator
+            .comparing(PriceTier::startDate)
+            .thenComparingInt(PriceTier::maxQuantity);
+
+    private final double basePrice;
+    // Segment i covers local times [timeBounds[i], timeBounds[i + 1])
+    private final long[] timeBounds;
+    // Segment i owns steps [stepOffsets[i], stepOffsets[i + 1]) of quantityBounds / prices
+    private final int[] stepOffsets;
+    // Step j covers booking counts from quantityBounds[j] up to the next step of the same segment
+    private final long[] quantityBounds;
+    private final double[] prices;
+
+    private PriceSchedule(double basePrice, long[] timeBounds, int[] stepOffsets, long[] quantityBounds, double[] prices) {
+        this.basePrice = basePrice;
+        this.timeBounds = timeBounds;
+        this.stepOffsets = stepOffsets;
+        this.quantityBounds = quantityBounds;
+        this.prices = prices;
+    }
+
+    /**
+     * The compiled schedule for a tier list, shared with every other caller passing an equal list and price.
+     *
+     * @param tiers The item's price tiers; may be null or empty. Must not be modified afterwards.
+     * @param basePrice The price used wherever no tier applies.
+     */
+    public static PriceSchedule of(List<PriceTier> tiers, double basePrice) {
+        if (tiers == null || tiers.isEmpty()) {
+            return compile(tiers, basePrice); // Nothing to compile
+        }
+        return COMPILED.get(new Key(tiers, basePrice), key -> compile(key.tiers(), key.basePrice()));
+    }
+
+    /**
+     * Compiles a tier list.
+     *
+     * @param tiers The item's price tiers; may be null or empty.
+     * @param basePrice The price used wherever no tier applies.
+     */
+    public static PriceSchedule compile(List<PriceTier> tiers, double basePrice) {
+        List<PriceTier> ordered = tiers == null ? List.of() : tiers.stream()
+                .filter(tier -> tier.startDate() != null && tier.endDate() != null
+                        && !tier.endDate().isBefore(tier.startDate())
+                        && tier.maxQuantity() > tier.minQuantity())
+                .sorted(TIER_ORDER)
+                .toList();
+        if (ordered.isEmpty()) {
+            return new PriceSchedule(basePrice, NO_BOUNDS, new int[]{0}, NO_BOUNDS, new double[0]);
+        }
+
+        TreeSet<Long> times = new TreeSet<>();
+        for (PriceTier tier : ordered) {
+            times.add(startOf(tier));
+            times.add(endOf(tier));
+        }
+        long[] timeBounds = times.stream().mapToLong(Long::longValue).toArray();
+
+        int segments = timeBounds.length - 1;
+        int[] stepOffsets = new int[segments + 1];
+        List<Long> quantityBounds = new ArrayList<>();
+        List<Double> prices = new ArrayList<>();
+        for (int segment = 0; segment < segments; segment++) {
+            stepOffsets[segment] = quantityBounds.size();
+            long segmentStart = timeBounds[segment];
+            List<PriceTier> active = ordered.stream()
+                    .filter(tier -> startOf(tier) <= segmentStart && segmentStart < endOf(tier))
+                    .toList();
+
+            TreeSet<Long> quantities = new TreeSet<>();
+            quantities.add(0L);
+            for (PriceTier tier : active) {
+                quantities.add((long) tier.minQuantity());
+                quantities.add((long) tier.maxQuantity());
+            }
+            double previous = Double.NaN;
+            for (long quantity : quantities) {
+                double price = priceFor(active, quantity, basePrice);
+                // Adjacent steps with the same price collapse into one
+                if (Double.compare(price, previous) != 0) {
+                    quantityBounds.add(quantity);
+                    prices.add(price);
+                    previous = price;
+                }
+            }
+        }
+        stepOffsets[segments] = quantityBounds.size();
+
+        return new PriceSchedule(basePrice, timeBounds, stepOffsets,
+                quantityBounds.stream().mapToLong(Long::longValue).toArray(),
+                prices.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    public boolean isEmpty() {
+        return timeBounds.length == 0;
+    }
+
+    /**
+     * @param clock The clock whose local date-time is compared to the tier dates.
+     * @param bookingCount The number of CONFIRMED or PENDING bookings of the item.
+     * @return The price of the first applicable tier, or the base price.
+     */
+    public double priceAt(Clock clock, long bookingCount) {
+        if (isEmpty()) {
+            return basePrice;
+        }
+        Instant now = clock.instant();
+        int offsetSeconds = clock.getZone().getRules().getOffset(now).getTotalSeconds();
+        return priceAt(now.toEpochMilli() + offsetSeconds * 1000L, bookingCount);
+    }
+
+    /**
+     * @param localMillis Local wall-clock time as milliseconds since 1970-01-01T00:00 (no zone).
+     * @param bookingCount The number of CONFIRMED or PENDING bookings of the item.
+     */
+    public double priceAt(long localMillis, long bookingCount) {
+        int segment = floorIndex(timeBounds, 0, timeBounds.length, localMillis);
+        if (segment < 0 || segment >= timeBounds.length - 1) {
+            return basePrice;
+        }
+        int step = floorIndex(quantityBounds, stepOffsets[segment], stepOffsets[segment + 1], bookingCount);
+        return step < 0 ? basePrice : prices[step];
+    }
+
+    /** Local wall-clock milliseconds of a date-time, in the form {@link #priceAt(long, long)} takes. */
+    public static long toLocalMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000L + dateTime.getNano() / 1_000_000;
+    }
+
+    private static long startOf(PriceTier tier) {
+        return toLocalMillis(tier.startDate());
+    }
+
+    // Exclusive bound, so the tier's end date itself still matches
+    private static long endOf(PriceTier tier) {
+        return toLocalMillis(tier.endDate()) + 1;
+    }
+
+    private static double priceFor(List<PriceTier> active, long quantity, double basePrice) {
+        for (PriceTier tier : active) {
+            if (quantity >= tier.minQuantity() && quantity < tier.maxQuantity()) {
+                return tier.price();
+            }
+        }
+        return basePrice;
+    }
+
+    // Index of the last element in [from, to) that is <= key, or -1 when there is none
+    private static int floorIndex(long[] values, int from, int to, long key) {
+        int low = from;
+        int high = to - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
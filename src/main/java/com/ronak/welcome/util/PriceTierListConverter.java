@@ -0,0 +1,115 @@
+package com.ronak.welcome.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronak.welcome.DTO.PriceTier;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Stores a {@link PriceTier} list in the priceTiers TEXT column as a compact binary record instead of JSON.
+ *
+ * The column value is {@code "b1:"} followed by the Base64 of: the tier count, then per tier the UTF-8 name
+ * (length-prefixed), price, start and end as epoch seconds plus nanos (UTC, as the dates carry no zone),
+ * and min and max quantity. Reading it is a fixed sequence of buffer reads with no text parsing.
+ *
+ * Values written before this format start with {@code [} and are still read through {@link JsonListConverter}.
+ * They stay JSON until the tier list itself changes: saving an item with an equal list is not an update of
+ * the column, so both formats have to remain readable.
+ *
+ * Decoded lists are immutable and cached by column value, so loading an item whose tiers have not changed
+ * since they were last decoded does no decoding at all. A changed tier list has a different column value,
+ * which makes the cache self-invalidating.
+ */
+@Converter
+public class PriceTierListConverter implements AttributeConverter<List<PriceTier>, String> {
+
+    private static final String PREFIX = "b1:";
+    private static final int MAX_CACHED_LISTS = 10_000;
+
+    private static final Cache<String, List<PriceTier>> DECODED = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_LISTS)
+            .build();
+
+    private final JsonListConverter legacyConverter = new JsonListConverter();
+
+    @Override
+    public String convertToDatabaseColumn(List<PriceTier> attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        List<byte[]> names = new ArrayList<>(attribute.size());
+        int size = Integer.BYTES;
+        for (PriceTier tier : attribute) {
+            byte[] name = tier.name() == null ? new byte[0] : tier.name().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += Integer.BYTES + name.length + Double.BYTES + 2 * (Long.BYTES + Integer.BYTES) + 2 * Integer.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(attribute.size());
+        for (int i = 0; i < attribute.size(); i++) {
+            PriceTier tier = attribute.get(i);
+            buffer.putInt(names.get(i).length).put(names.get(i));
+            buffer.putDouble(tier.price());
+            putDateTime(buffer, tier.startDate());
+            putDateTime(buffer, tier.endDate());
+            buffer.putInt(tier.minQuantity());
+            buffer.putInt(tier.maxQuantity());
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    @Override
+    public List<PriceTier> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isEmpty()) {
+            return null;
+        }
+        return DECODED.get(dbData, this::decode);
+    }
+
+    private List<PriceTier> decode(String dbData) {
+        if (!dbData.startsWith(PREFIX)) {
+            List<PriceTier> legacy = legacyConverter.convertToEntityAttribute(dbData);
+            return legacy == null ? null : List.copyOf(legacy);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(dbData.substring(PREFIX.length())));
+        int count = buffer.getInt();
+        PriceTier[] tiers = new PriceTier[count];
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            tiers[i] = new PriceTier(
+                    new String(name, StandardCharsets.UTF_8),
+                    buffer.getDouble(),
+                    getDateTime(buffer),
+                    getDateTime(buffer),
+                    buffer.getInt(),
+                    buffer.getInt());
+        }
+        return List.of(tiers);
+    }
+
+    // A missing date is written as Long.MIN_VALUE seconds
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.putLong(Long.MIN_VALUE).putInt(0);
+        } else {
+            buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ronak.welcome.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Precompiled lookup of the rate-limit token cost for a request path.
+ * Route patterns are split into segments once at startup, so resolving a path only walks the trie
+ * and compares path regions in place, without allocating per request.
+ *
+ * Supported pattern syntax:
+ * <ul>
+ *     <li>literal segments, e.g. /api/v1/items/search</li>
+ *     <li>{@code *} or {@code {name}} matching exactly one segment, e.g. /api/v1/items/{id}</li>
+ *     <li>a trailing {@code **} matching the prefix itself and everything below it, e.g. /actuator/**</li>
+ * </ul>
+ * A literal segment always wins over a single-segment wildcard at the same level (no backtracking),
+ * and an exact match wins over the closest enclosing {@code **}.
+ */
+public final class RouteCostTrie {
+
+    private static final int NO_COST = -1;
+
+    private final Node root = new Node();
+    private final int defaultCost;
+
+    /**
+     * @param routeCosts Route pattern to token cost.
+     * @param defaultCost The cost of a path that matches no pattern.
+     */
+    public RouteCostTrie(Map<String, Integer> routeCosts, int defaultCost) {
+        this.defaultCost = defaultCost;
+        routeCosts.forEach(this::insert);
+    }
+
+    /**
+     * Resolves the token cost of a request path.
+     *
+     * @param path The request URI path (e.g., "/api/v1/items/42").
+     * @return The cost configured for the most specific matching pattern, or the default cost.
+     */
+    public int costFor(String path) {
+        Node node = root;
+        int fallback = root.descendantsCost != NO_COST ? root.descendantsCost : defaultCost;
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            Node next = node.child(path, start, end - start);
+            if (next == null) {
+                next = node.wildcard;
+            }
+            if (next == null) {
+                return fallback;
+            }
+            node = next;
+            if (node.descendantsCost != NO_COST) {
+                fallback = node.descendantsCost;
+            }
+            start = end;
+        }
+        return node.cost != NO_COST ? node.cost : fallback;
+    }
+
+    private void insert(String pattern, int cost) {
+        Node node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**")) {
+                node.descendantsCost = cost;
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.childOrCreate(segment);
+            }
+        }
+        node.cost = cost;
+    }
+
+    private static final class Node {
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private int cost = NO_COST;            // Cost when the path ends exactly at this node
+        private int descendantsCost = NO_COST; // Cost from a "**" pattern ending at this node
+
+        private Node child(String path, int start, int length) {
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            Node existing = child(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
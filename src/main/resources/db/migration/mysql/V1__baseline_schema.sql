@@ -0,0 +1,339 @@
+-- Baseline schema, equivalent to what Hibernate generated for the entity model with ddl-auto.
+-- Databases that were created by ddl-auto before migrations existed are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it. Sequences are emulated with one-row tables.
+
+create table addresses (
+    city_id bigint,
+    id bigint not null,
+    user_id bigint,
+    street varchar(255),
+    zip_code varchar(255),
+    address_type enum ('COMMUNICATION','CURRENT','HOME'),
+    primary key (id)
+) engine=InnoDB;
+
+create table addresses_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into addresses_seq values ( 1 );
+
+create table bookable_items (
+    capacity integer not null,
+    is_private bit not null,
+    price float(53) not null,
+    created_at datetime(6) not null,
+    end_time datetime(6),
+    id bigint not null,
+    provider_id bigint not null,
+    start_time datetime(6) not null,
+    updated_at datetime(6) not null,
+    description TEXT,
+    location varchar(255) not null,
+    name varchar(255) not null,
+    price_tiers TEXT,
+    type enum ('APPOINTMENT','CLASS','EVENT','RESOURCE','SERVICE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bookable_items_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into bookable_items_seq values ( 1 );
+
+create table bookings (
+    price float(53),
+    bookable_item_id bigint not null,
+    booking_date datetime(6) not null,
+    id bigint not null,
+    user_id bigint not null,
+    status enum ('CANCELLED','COMPLETED','CONFIRMED','NO_SHOW','PENDING','WAITLISTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bookings_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into bookings_seq values ( 1 );
+
+create table cities (
+    id bigint not null,
+    state_id bigint,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table cities_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into cities_seq values ( 1 );
+
+create table countries (
+    id bigint not null,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table countries_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into countries_seq values ( 1 );
+
+create table event_registrations (
+    event_id bigint not null,
+    id bigint not null,
+    registration_date datetime(6) not null,
+    user_id bigint not null,
+    status enum ('CANCELLED','REGISTERED','WAITLISTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table event_registrations_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into event_registrations_seq values ( 1 );
+
+create table events (
+    id bigint not null,
+    event_specific_field varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table item_similarities (
+    similarity_score float(53) not null,
+    id bigint not null,
+    item1_id bigint not null,
+    item2_id bigint not null,
+    similarity_type enum ('COLLABORATIVE','CONTENT_BASED','HYBRID') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table item_similarities_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into item_similarities_seq values ( 1 );
+
+create table outbox_events (
+    retry_count integer not null,
+    created_at datetime(6) not null,
+    id bigint not null,
+    processed_at datetime(6),
+    updated_at datetime(6) not null,
+    error_message varchar(255),
+    event_type varchar(255) not null,
+    payload TEXT not null,
+    recipient_email varchar(255),
+    status varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_events_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into outbox_events_seq values ( 1 );
+
+create table rate_limit_buckets (
+    updated_at bigint not null,
+    version bigint not null,
+    state varbinary(2048) not null,
+    id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_token (
+    revoked bit not null,
+    expiry_date datetime(6) not null,
+    id bigint not null,
+    user_id bigint not null,
+    token_hash varchar(43) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_token_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into refresh_token_seq values ( 1 );
+
+create table role (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table role_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into role_seq values ( 1 );
+
+create table states (
+    country_id bigint,
+    id bigint not null,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table states_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into states_seq values ( 1 );
+
+create table user_interactions (
+    weight float(53) not null,
+    bookable_item_id bigint not null,
+    id bigint not null,
+    interaction_date datetime(6) not null,
+    user_id bigint not null,
+    interaction_type enum ('BOOK','CANCEL','CLICK','FAVORITE','REVIEW','SEARCH','SHARE','VIEW') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_interactions_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into user_interactions_seq values ( 1 );
+
+create table user_roles (
+    user_id bigint not null,
+    role enum ('ADMIN','EVENT_ORGANIZER','USER')
+) engine=InnoDB;
+
+create table users (
+    totp_enabled bit not null,
+    id bigint not null,
+    token_version bigint default 0 not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    totp_secret varchar(255),
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into users_seq values ( 1 );
+
+create index idx_bookable_items_provider_private
+   on bookable_items (provider_id, is_private);
+
+alter table bookings
+   add constraint UK8chpth5gckucjmcc327xakrs2 unique (user_id, bookable_item_id);
+
+alter table cities
+   add constraint uk_cities_state_name unique (state_id, name);
+
+alter table countries
+   add constraint UK1pyiwrqimi3hnl3vtgsypj5r unique (name);
+
+alter table event_registrations
+   add constraint UKmv1wttabjpboyulu2pql4koqo unique (user_id, event_id);
+
+create index idx_refresh_token_user
+   on refresh_token (user_id);
+
+create index idx_refresh_token_expiry
+   on refresh_token (expiry_date);
+
+alter table refresh_token
+   add constraint UKkdj16cltjxdksuyiosdhliveg unique (token_hash);
+
+alter table states
+   add constraint uk_states_country_name unique (country_id, name);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table addresses
+   add constraint FK9fkb8qaj71tiyr9htkmn7r8y5
+   foreign key (city_id)
+   references cities (id);
+
+alter table addresses
+   add constraint FK1fa36y2oqhao3wgg2rw1pi459
+   foreign key (user_id)
+   references users (id);
+
+alter table bookable_items
+   add constraint FKcrtqriumnkvqobsjjyue3y7tb
+   foreign key (provider_id)
+   references users (id);
+
+alter table bookings
+   add constraint FKaolxcpk47b5vnrhju2g6paqk0
+   foreign key (bookable_item_id)
+   references bookable_items (id);
+
+alter table bookings
+   add constraint FKeyog2oic85xg7hsu2je2lx3s6
+   foreign key (user_id)
+   references users (id);
+
+alter table cities
+   add constraint FKsu54e1tlhaof4oklvv7uphsli
+   foreign key (state_id)
+   references states (id);
+
+alter table event_registrations
+   add constraint FK6eykq6wu4n23qhn5vwb8kyut5
+   foreign key (event_id)
+   references events (id);
+
+alter table event_registrations
+   add constraint FKnk7jh3bmmv11csoxkjnb6av4h
+   foreign key (user_id)
+   references users (id);
+
+alter table events
+   add constraint FKqtgrk8eij0ly4k5cy0eclg29b
+   foreign key (id)
+   references bookable_items (id);
+
+alter table item_similarities
+   add constraint FKrjyc0bqv06j495jkngr5db8vq
+   foreign key (item1_id)
+   references bookable_items (id);
+
+alter table item_similarities
+   add constraint FKdvq5b97h3tqi48nqn1ldjny
+   foreign key (item2_id)
+   references bookable_items (id);
+
+alter table refresh_token
+   add constraint FKjtx87i0jvq2svedphegvdwcuy
+   foreign key (user_id)
+   references users (id);
+
+alter table states
+   add constraint FKskkdphjml9vjlrqn4m5hi251y
+   foreign key (country_id)
+   references countries (id);
+
+alter table user_interactions
+   add constraint FK9rsujwmi9w62wthbeo0qm18ur
+   foreign key (bookable_item_id)
+   references bookable_items (id);
+
+alter table user_interactions
+   add constraint FKbtntnxygawfi1l6ppnaysyx4i
+   foreign key (user_id)
+   references users (id);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
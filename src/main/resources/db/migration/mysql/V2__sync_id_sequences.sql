@@ -0,0 +1,82 @@
+-- Entity IDs come from pooled sequences (allocation size 50), which MySQL emulates with one-row
+-- tables. Databases created before that switch hold IDs from auto-increment columns, so every sequence
+-- table is created if missing and reset past the current maximum ID, leaving a full allocation block
+-- of headroom for Hibernate's pooled optimizer.
+
+create table if not exists addresses_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from addresses_seq;
+insert into addresses_seq select coalesce(max(id), 0) + 51 from addresses;
+
+create table if not exists bookable_items_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from bookable_items_seq;
+insert into bookable_items_seq select coalesce(max(id), 0) + 51 from bookable_items;
+
+create table if not exists bookings_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from bookings_seq;
+insert into bookings_seq select coalesce(max(id), 0) + 51 from bookings;
+
+create table if not exists cities_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from cities_seq;
+insert into cities_seq select coalesce(max(id), 0) + 51 from cities;
+
+create table if not exists countries_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from countries_seq;
+insert into countries_seq select coalesce(max(id), 0) + 51 from countries;
+
+create table if not exists event_registrations_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from event_registrations_seq;
+insert into event_registrations_seq select coalesce(max(id), 0) + 51 from event_registrations;
+
+create table if not exists item_similarities_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from item_similarities_seq;
+insert into item_similarities_seq select coalesce(max(id), 0) + 51 from item_similarities;
+
+create table if not exists outbox_events_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from outbox_events_seq;
+insert into outbox_events_seq select coalesce(max(id), 0) + 51 from outbox_events;
+
+create table if not exists refresh_token_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from refresh_token_seq;
+insert into refresh_token_seq select coalesce(max(id), 0) + 51 from refresh_token;
+
+create table if not exists role_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from role_seq;
+insert into role_seq select coalesce(max(id), 0) + 51 from role;
+
+create table if not exists states_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from states_seq;
+insert into states_seq select coalesce(max(id), 0) + 51 from states;
+
+create table if not exists user_interactions_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from user_interactions_seq;
+insert into user_interactions_seq select coalesce(max(id), 0) + 51 from user_interactions;
+
+create table if not exists users_seq (
+    next_val bigint
+) engine=InnoDB;
+delete from users_seq;
+insert into users_seq select coalesce(max(id), 0) + 51 from users;
@@ -0,0 +1,27 @@
+-- Indexes for the hottest repository queries. InnoDB already indexes every foreign key column.
+-- MySQL has no partial indexes, so the public catalog path uses is_private as a key column instead.
+
+-- Booking counts and lookups per item, filtered by status:
+-- BookingRepository.countActiveByBookableItem / countActiveByBookableItemIds / findOverlappingBookings
+create index idx_bookings_item_status
+    on bookings (bookable_item_id, status);
+
+-- Public catalog path of BookableItemVisibility (is_private = false), by type and start time
+create index idx_bookable_items_type_private_start
+    on bookable_items (type, is_private, start_time);
+
+create index idx_bookable_items_private_start
+    on bookable_items (is_private, start_time);
+
+-- Outbox polling: status = ? AND retry_count < ? ORDER BY created_at.
+-- created_at before retry_count lets the scan return rows already ordered; retry_count is checked in the index.
+create index idx_outbox_events_status_created_retry
+    on outbox_events (status, created_at, retry_count);
+
+-- UserInteractionRepository.findRecentInteractions (user_id = ? AND interaction_date >= ?) and findByUser
+create index idx_user_interactions_user_date
+    on user_interactions (user_id, interaction_date);
+
+-- UserInteractionRepository.countInteractionsByType and findByBookableItem
+create index idx_user_interactions_item_type
+    on user_interactions (bookable_item_id, interaction_type);
@@ -0,0 +1,25 @@
+-- CityServiceImpl matches country, state and city names case-insensitively, so uniqueness must be
+-- case-insensitive too, whatever the column collation: with a case-sensitive collation "Paris" and "paris"
+-- could both be inserted concurrently, and the next lookup would find two rows. Each table gets a stored
+-- generated column lower(name) carrying the unique index; the optimizer uses it for the lower(name) = ?
+-- lookups of the repositories.
+-- Fails if such duplicates already exist; find them with
+--   select lower(name), count(*) from countries group by lower(name) having count(*) > 1
+-- (likewise per country_id for states and per state_id for cities) and merge them first.
+
+alter table countries
+    add column name_key varchar(255) generated always as (lower(name)) stored,
+    add constraint uk_countries_name_ci unique (name_key);
+
+alter table states
+    add column name_key varchar(255) generated always as (lower(name)) stored,
+    add constraint uk_states_country_name_ci unique (country_id, name_key);
+
+alter table cities
+    add column name_key varchar(255) generated always as (lower(name)) stored,
+    add constraint uk_cities_state_name_ci unique (state_id, name_key);
+
+-- The case-sensitive constraints they replace; the new ones also back the country_id / state_id foreign keys
+alter table countries drop index UK1pyiwrqimi3hnl3vtgsypj5r;
+alter table states drop index uk_states_country_name;
+alter table cities drop index uk_cities_state_name;
@@ -0,0 +1,7 @@
+-- Catalog indexes matched to the SQL BookableItemVisibility actually runs (see HotQueryIndexTests).
+-- Listings by type are unsorted, so start_time in idx_bookable_items_type_private_start was never used.
+-- Searches filtered on or sorted by start time keep using idx_bookable_items_private_start.
+create index idx_bookable_items_type_private
+    on bookable_items (type, is_private);
+
+drop index idx_bookable_items_type_private_start on bookable_items;
@@ -0,0 +1,267 @@
+-- Baseline schema, equivalent to what Hibernate generated for the entity model with ddl-auto.
+-- Databases that were created by ddl-auto before migrations existed are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it.
+
+create sequence addresses_seq start with 1 increment by 50;
+
+create sequence bookable_items_seq start with 1 increment by 50;
+
+create sequence bookings_seq start with 1 increment by 50;
+
+create sequence cities_seq start with 1 increment by 50;
+
+create sequence countries_seq start with 1 increment by 50;
+
+create sequence event_registrations_seq start with 1 increment by 50;
+
+create sequence item_similarities_seq start with 1 increment by 50;
+
+create sequence outbox_events_seq start with 1 increment by 50;
+
+create sequence refresh_token_seq start with 1 increment by 50;
+
+create sequence role_seq start with 1 increment by 50;
+
+create sequence states_seq start with 1 increment by 50;
+
+create sequence user_interactions_seq start with 1 increment by 50;
+
+create sequence users_seq start with 1 increment by 50;
+
+create table addresses (
+    city_id bigint,
+    id bigint not null,
+    user_id bigint,
+    address_type varchar(255) check (address_type in ('CURRENT','COMMUNICATION','HOME')),
+    street varchar(255),
+    zip_code varchar(255),
+    primary key (id)
+);
+
+create table bookable_items (
+    capacity integer not null,
+    is_private boolean not null,
+    price float(53) not null,
+    created_at timestamp(6) not null,
+    end_time timestamp(6),
+    id bigint not null,
+    provider_id bigint not null,
+    start_time timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    description TEXT,
+    location varchar(255) not null,
+    name varchar(255) not null,
+    price_tiers TEXT,
+    type varchar(255) not null check (type in ('EVENT','APPOINTMENT','RESOURCE','CLASS','SERVICE')),
+    primary key (id)
+);
+
+create table bookings (
+    price float(53),
+    bookable_item_id bigint not null,
+    booking_date timestamp(6) not null,
+    id bigint not null,
+    user_id bigint not null,
+    status varchar(255) not null check (status in ('PENDING','CONFIRMED','CANCELLED','COMPLETED','NO_SHOW','WAITLISTED')),
+    primary key (id),
+    unique (user_id, bookable_item_id)
+);
+
+create table cities (
+    id bigint not null,
+    state_id bigint,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_cities_state_name unique (state_id, name)
+);
+
+create table countries (
+    id bigint not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table event_registrations (
+    event_id bigint not null,
+    id bigint not null,
+    registration_date timestamp(6) not null,
+    user_id bigint not null,
+    status varchar(255) not null check (status in ('REGISTERED','CANCELLED','WAITLISTED')),
+    primary key (id),
+    unique (user_id, event_id)
+);
+
+create table events (
+    id bigint not null,
+    event_specific_field varchar(255),
+    primary key (id)
+);
+
+create table item_similarities (
+    similarity_score float(53) not null,
+    id bigint not null,
+    item1_id bigint not null,
+    item2_id bigint not null,
+    similarity_type varchar(255) not null check (similarity_type in ('CONTENT_BASED','COLLABORATIVE','HYBRID')),
+    primary key (id)
+);
+
+create table outbox_events (
+    retry_count integer not null,
+    created_at timestamp(6) not null,
+    id bigint not null,
+    processed_at timestamp(6),
+    updated_at timestamp(6) not null,
+    error_message varchar(255),
+    event_type varchar(255) not null,
+    payload TEXT not null,
+    recipient_email varchar(255),
+    status varchar(255) not null,
+    primary key (id)
+);
+
+create table rate_limit_buckets (
+    updated_at bigint not null,
+    version bigint not null,
+    state bytea not null,
+    id varchar(255) not null,
+    primary key (id)
+);
+
+create table refresh_token (
+    revoked boolean not null,
+    expiry_date timestamp(6) with time zone not null,
+    id bigint not null,
+    user_id bigint not null,
+    token_hash varchar(43) not null unique,
+    primary key (id)
+);
+
+create table role (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table states (
+    country_id bigint,
+    id bigint not null,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_states_country_name unique (country_id, name)
+);
+
+create table user_interactions (
+    weight float(53) not null,
+    bookable_item_id bigint not null,
+    id bigint not null,
+    interaction_date timestamp(6) not null,
+    user_id bigint not null,
+    interaction_type varchar(255) not null check (interaction_type in ('VIEW','SEARCH','CLICK','FAVORITE','SHARE','REVIEW','BOOK','CANCEL')),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255) check (role in ('USER','EVENT_ORGANIZER','ADMIN'))
+);
+
+create table users (
+    totp_enabled boolean not null,
+    id bigint not null,
+    token_version bigint default 0 not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    totp_secret varchar(255),
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+create index idx_bookable_items_provider_private
+   on bookable_items (provider_id, is_private);
+
+create index idx_refresh_token_user
+   on refresh_token (user_id);
+
+create index idx_refresh_token_expiry
+   on refresh_token (expiry_date);
+
+alter table addresses
+   add constraint FK9fkb8qaj71tiyr9htkmn7r8y5
+   foreign key (city_id)
+   references cities;
+
+alter table addresses
+   add constraint FK1fa36y2oqhao3wgg2rw1pi459
+   foreign key (user_id)
+   references users;
+
+alter table bookable_items
+   add constraint FKcrtqriumnkvqobsjjyue3y7tb
+   foreign key (provider_id)
+   references users;
+
+alter table bookings
+   add constraint FKaolxcpk47b5vnrhju2g6paqk0
+   foreign key (bookable_item_id)
+   references bookable_items;
+
+alter table bookings
+   add constraint FKeyog2oic85xg7hsu2je2lx3s6
+   foreign key (user_id)
+   references users;
+
+alter table cities
+   add constraint FKsu54e1tlhaof4oklvv7uphsli
+   foreign key (state_id)
+   references states;
+
+alter table event_registrations
+   add constraint FK6eykq6wu4n23qhn5vwb8kyut5
+   foreign key (event_id)
+   references events;
+
+alter table event_registrations
+   add constraint FKnk7jh3bmmv11csoxkjnb6av4h
+   foreign key (user_id)
+   references users;
+
+alter table events
+   add constraint FKqtgrk8eij0ly4k5cy0eclg29b
+   foreign key (id)
+   references bookable_items;
+
+alter table item_similarities
+   add constraint FKrjyc0bqv06j495jkngr5db8vq
+   foreign key (item1_id)
+   references bookable_items;
+
+alter table item_similarities
+   add constraint FKdvq5b97h3tqi48nqn1ldjny
+   foreign key (item2_id)
+   references bookable_items;
+
+alter table refresh_token
+   add constraint FKjtx87i0jvq2svedphegvdwcuy
+   foreign key (user_id)
+   references users;
+
+alter table states
+   add constraint FKskkdphjml9vjlrqn4m5hi251y
+   foreign key (country_id)
+   references countries;
+
+alter table user_interactions
+   add constraint FK9rsujwmi9w62wthbeo0qm18ur
+   foreign key (bookable_item_id)
+   references bookable_items;
+
+alter table user_interactions
+   add constraint FKbtntnxygawfi1l6ppnaysyx4i
+   foreign key (user_id)
+   references users;
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users;
@@ -0,0 +1,31 @@
+-- Entity IDs come from pooled sequences (allocation size 50). Databases created before that switch
+-- hold IDs from identity columns, so every sequence is created if missing and moved past the current
+-- maximum ID. Hibernate's pooled optimizer hands out the 50 IDs below each value it reads, so the
+-- next value must be at least max(id) + 50; setval(max + 50) makes the next call return max + 100.
+create sequence if not exists addresses_seq start with 1 increment by 50;
+create sequence if not exists bookable_items_seq start with 1 increment by 50;
+create sequence if not exists bookings_seq start with 1 increment by 50;
+create sequence if not exists cities_seq start with 1 increment by 50;
+create sequence if not exists countries_seq start with 1 increment by 50;
+create sequence if not exists event_registrations_seq start with 1 increment by 50;
+create sequence if not exists item_similarities_seq start with 1 increment by 50;
+create sequence if not exists outbox_events_seq start with 1 increment by 50;
+create sequence if not exists refresh_token_seq start with 1 increment by 50;
+create sequence if not exists role_seq start with 1 increment by 50;
+create sequence if not exists states_seq start with 1 increment by 50;
+create sequence if not exists user_interactions_seq start with 1 increment by 50;
+create sequence if not exists users_seq start with 1 increment by 50;
+
+select setval('addresses_seq', (select coalesce(max(id), 0) + 50 from addresses));
+select setval('bookable_items_seq', (select coalesce(max(id), 0) + 50 from bookable_items));
+select setval('bookings_seq', (select coalesce(max(id), 0) + 50 from bookings));
+select setval('cities_seq', (select coalesce(max(id), 0) + 50 from cities));
+select setval('countries_seq', (select coalesce(max(id), 0) + 50 from countries));
+select setval('event_registrations_seq', (select coalesce(max(id), 0) + 50 from event_registrations));
+select setval('item_similarities_seq', (select coalesce(max(id), 0) + 50 from item_similarities));
+select setval('outbox_events_seq', (select coalesce(max(id), 0) + 50 from outbox_events));
+select setval('refresh_token_seq', (select coalesce(max(id), 0) + 50 from refresh_token));
+select setval('role_seq', (select coalesce(max(id), 0) + 50 from role));
+select setval('states_seq', (select coalesce(max(id), 0) + 50 from states));
+select setval('user_interactions_seq', (select coalesce(max(id), 0) + 50 from user_interactions));
+select setval('users_seq', (select coalesce(max(id), 0) + 50 from users));
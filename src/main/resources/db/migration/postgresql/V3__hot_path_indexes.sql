@@ -0,0 +1,39 @@
+-- Indexes for the hottest repository queries. PostgreSQL does not index foreign keys by itself.
+
+-- Booking counts and lookups per item, filtered by status:
+-- BookingRepository.countActiveByBookableItem / countActiveByBookableItemIds / findOverlappingBookings
+create index idx_bookings_item_status
+    on bookings (bookable_item_id, status);
+
+-- Public catalog path of BookableItemVisibility (is_private = false), by type and start time.
+-- Partial, so private items never take up space in it and the visibility filter is implied by the index.
+create index idx_bookable_items_public_type_start
+    on bookable_items (type, start_time)
+    where is_private = false;
+
+create index idx_bookable_items_public_start
+    on bookable_items (start_time)
+    where is_private = false;
+
+-- Outbox polling: status = ? AND retry_count < ? ORDER BY created_at.
+-- created_at before retry_count lets the scan return rows already ordered; retry_count is checked in the index.
+create index idx_outbox_events_status_created_retry
+    on outbox_events (status, created_at, retry_count);
+
+-- UserInteractionRepository.findRecentInteractions (user_id = ? AND interaction_date >= ?) and findByUser
+create index idx_user_interactions_user_date
+    on user_interactions (user_id, interaction_date);
+
+-- UserInteractionRepository.countInteractionsByType and findByBookableItem
+create index idx_user_interactions_item_type
+    on user_interactions (bookable_item_id, interaction_type);
+
+-- Foreign keys followed from users and items that have no index yet
+create index idx_addresses_user
+    on addresses (user_id);
+
+create index idx_user_roles_user
+    on user_roles (user_id);
+
+create index idx_event_registrations_event
+    on event_registrations (event_id);
@@ -0,0 +1,23 @@
+-- CityServiceImpl matches country, state and city names case-insensitively, so uniqueness must be
+-- case-insensitive too: with plain unique constraints "Paris" and "paris" could both be inserted concurrently,
+-- and the next lookup would find two rows. The new indexes are on lower(name), the expression the
+-- repository lookups use.
+-- Fails if such duplicates already exist; find them with
+--   select lower(name), count(*) from countries group by lower(name) having count(*) > 1
+-- (likewise per country_id for states and per state_id for cities) and merge them first.
+
+create unique index uk_countries_name_ci
+    on countries (lower(name));
+
+create unique index uk_states_country_name_ci
+    on states (country_id, lower(name));
+
+create unique index uk_cities_state_name_ci
+    on cities (state_id, lower(name));
+
+-- The case-sensitive constraints they replace. Schemas created by Hibernate before Flyway name the
+-- countries constraint differently from V1.
+alter table countries drop constraint if exists countries_name_key;
+alter table countries drop constraint if exists uk1pyiwrqimi3hnl3vtgsypj5r;
+alter table states drop constraint if exists uk_states_country_name;
+alter table cities drop constraint if exists uk_cities_state_name;
@@ -0,0 +1,9 @@
+-- Catalog indexes matched to the SQL BookableItemVisibility actually runs (see HotQueryIndexTests).
+-- Listings by type are unsorted, so start_time in idx_bookable_items_public_type_start was never used:
+-- the by-type path only needs type on the public partial index. Searches filtered on or sorted by
+-- start time keep using idx_bookable_items_public_start.
+create index idx_bookable_items_public_type
+    on bookable_items (type)
+    where is_private = false;
+
+drop index idx_bookable_items_public_type_start;
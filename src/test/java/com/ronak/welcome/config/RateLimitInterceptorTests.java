@@ -0,0 +1,39 @@
+package com.ronak.welcome.config;
+
+import com.ronak.welcome.service.impl.RateLimiterService;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitInterceptorTests {
+
+    private final RateLimiterService rateLimiterService = mock(RateLimiterService.class);
+
+    private final RateLimitInterceptor interceptor =
+            new RateLimitInterceptor(rateLimiterService, new RateLimitPolicyProperties());
+
+    @Test
+    void asyncRequestIsChargedOnlyOnItsFirstDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        when(rateLimiterService.tryConsumeTokens(any(), any(), anyInt())).thenReturn(true, false);
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+        request.setDispatcherType(DispatcherType.ASYNC);
+        MockHttpServletResponse asyncResponse = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request, asyncResponse, new Object())).isTrue();
+
+        assertThat(asyncResponse.getStatus()).isEqualTo(200);
+        verify(rateLimiterService, times(1)).tryConsumeTokens(eq("ip:10.0.0.1"), any(), eq(1));
+    }
+}
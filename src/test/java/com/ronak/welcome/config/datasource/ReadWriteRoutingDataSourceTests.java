@@ -0,0 +1,101 @@
+package com.ronak.welcome.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.ronak.welcome.config.datasource.ReadWriteRoutingDataSource.Target.PRIMARY;
+import static com.ronak.welcome.config.datasource.ReadWriteRoutingDataSource.Target.REPLICA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTests {
+
+    // No lag query exists for this vendor, so a successful check always reports 0
+    private final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(
+            new DriverManagerDataSource(), "jdbc:h2:mem:replica", 1000, new SimpleMeterRegistry());
+
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+            new DriverManagerDataSource(), new DriverManagerDataSource(), lagMonitor,
+            new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "secret"), new SimpleMeterRegistry());
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    private Object routeReadOnly(String username) {
+        authenticate(username);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private void commitWrite(String username) {
+        authenticate(username);
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(PRIMARY);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(username == null ? null
+                : UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaOnceLagIsKnown() {
+        assertThat(routeReadOnly(null)).isEqualTo(PRIMARY);
+
+        lagMonitor.checkLag();
+
+        assertThat(routeReadOnly(null)).isEqualTo(REPLICA);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() {
+        lagMonitor.checkLag();
+
+        commitWrite("alice");
+
+        assertThat(routeReadOnly("alice")).isEqualTo(PRIMARY);
+        assertThat(routeReadOnly("bob")).isEqualTo(REPLICA);
+    }
+
+    @Test
+    void replicaReadsAreReportedAsLaggingOnlyWhileBehind() {
+        lagMonitor.checkLag();
+        assertThat(ReplicaReads.track(() -> routeReadOnly(null)))
+                .isEqualTo(new ReplicaReads.Tracked<>(REPLICA, false));
+
+        ReplicaLagMonitor behind = mock(ReplicaLagMonitor.class);
+        when(behind.isReplicaUsable()).thenReturn(true);
+        when(behind.getLagMillis()).thenReturn(500L);
+        ReadWriteRoutingDataSource laggingRouting = new ReadWriteRoutingDataSource(
+                new DriverManagerDataSource(), new DriverManagerDataSource(), behind,
+                new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "secret"), new SimpleMeterRegistry());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(ReplicaReads.track(laggingRouting::determineCurrentLookupKey))
+                .isEqualTo(new ReplicaReads.Tracked<>(REPLICA, true));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ronak.welcome.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTests {
+
+    private final ReadYourWritesTracker node1 = new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "secret");
+    private final ReadYourWritesTracker node2 = new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "secret");
+
+    @AfterEach
+    void clear() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void writeThroughOneNodeIsHonouredByAnotherThroughTheCookie() {
+        Cookie cookie = writeAs(node1, "alice");
+
+        assertThat(node1.wroteRecently("alice")).isTrue();
+        assertThat(readWith(node2, "alice", cookie)).isTrue();
+        assertThat(readWith(node2, "alice")).isFalse();
+    }
+
+    @Test
+    void cookieOnlyCoversTheUserItWasIssuedFor() {
+        Cookie cookie = writeAs(node1, "alice");
+
+        assertThat(readWith(node2, "bob", cookie)).isFalse();
+    }
+
+    @Test
+    void tamperedOrForeignCookiesAreIgnored() {
+        Cookie cookie = writeAs(node1, "alice");
+        String[] parts = cookie.getValue().split("\\.");
+        Cookie extended = new Cookie(ReadYourWritesTracker.COOKIE,
+                parts[0] + "." + (Long.parseLong(parts[1]) + 1) + "." + parts[2]);
+        ReadYourWritesTracker otherSecret = new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "other");
+
+        assertThat(readWith(node2, "alice", extended)).isFalse();
+        assertThat(readWith(otherSecret, "alice", cookie)).isFalse();
+        assertThat(readWith(node2, "alice", new Cookie(ReadYourWritesTracker.COOKIE, "garbage"))).isFalse();
+        assertThat(readWith(node2, "alice", new Cookie(ReadYourWritesTracker.COOKIE, "!.x.y"))).isFalse();
+    }
+
+    @Test
+    void expiredCookieIsIgnored() {
+        ReadYourWritesTracker shortWindow = new ReadYourWritesTracker(Duration.ZERO, 100, "secret");
+        Cookie cookie = writeAs(shortWindow, "alice");
+
+        assertThat(readWith(node2, "alice", cookie)).isFalse();
+    }
+
+    @Test
+    void writesOutsideARequestAreOnlyRememberedLocally() {
+        node1.recordWrite("alice");
+
+        assertThat(node1.wroteRecently("alice")).isTrue();
+        assertThat(node2.wroteRecently("alice")).isFalse();
+    }
+
+    private Cookie writeAs(ReadYourWritesTracker tracker, String username) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        tracker.recordWrite(username);
+        RequestContextHolder.resetRequestAttributes();
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("HttpOnly");
+        return response.getCookie(ReadYourWritesTracker.COOKIE);
+    }
+
+    private boolean readWith(ReadYourWritesTracker tracker, String username, Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return tracker.wroteRecently(username);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
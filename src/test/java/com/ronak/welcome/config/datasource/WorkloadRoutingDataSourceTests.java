@@ -0,0 +1,132 @@
+package com.ronak.welcome.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkloadRoutingDataSourceTests {
+
+    private final WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(Map.of(
+            Workload.OLTP, new DriverManagerDataSource(),
+            Workload.CATALOG, new DriverManagerDataSource(),
+            Workload.BACKGROUND, new DriverManagerDataSource()));
+
+    private final Jobs jobs = advised(new Jobs());
+
+    private final TransactionTemplate readOnlyTransaction = readOnly(new TransactionTemplate(new NoOpTransactionManager()));
+
+    @AfterEach
+    void clear() {
+        WorkloadRoutingDataSource.bind(null);
+    }
+
+    @Test
+    void routesByTransactionWithoutBackgroundWork() {
+        Object readOnly = readOnlyTransaction.execute(status -> routing.determineCurrentLookupKey());
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Workload.OLTP);
+        assertThat(readOnly).isEqualTo(Workload.CATALOG);
+    }
+
+    @Test
+    void backgroundWorkRoutesToBackgroundPool() {
+        assertThat(jobs.run(routing::determineCurrentLookupKey)).isEqualTo(Workload.BACKGROUND);
+    }
+
+    @Test
+    void readOnlyTransactionInsideBackgroundWorkStaysOnBackgroundPool() {
+        Object workload = jobs.run(() -> readOnlyTransaction.execute(status -> routing.determineCurrentLookupKey()));
+
+        assertThat(workload).isEqualTo(Workload.BACKGROUND);
+    }
+
+    @Test
+    void backgroundWorkInsideReadOnlyTransactionRoutesToBackgroundPool() {
+        AtomicReference<Object> inside = new AtomicReference<>();
+        Object afterwards = readOnlyTransaction.execute(status -> {
+            inside.set(jobs.run(routing::determineCurrentLookupKey));
+            return routing.determineCurrentLookupKey();
+        });
+
+        assertThat(inside).hasValue(Workload.BACKGROUND);
+        assertThat(afterwards).isEqualTo(Workload.CATALOG);
+    }
+
+    @Test
+    void bindingIsRestoredAfterBackgroundWork() {
+        jobs.run(routing::determineCurrentLookupKey);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Workload.OLTP);
+    }
+
+    @Test
+    void bindingIsRestoredWhenBackgroundWorkFails() {
+        assertThatThrownBy(() -> jobs.run(() -> {
+            throw new IllegalStateException("batch failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Workload.OLTP);
+    }
+
+    @Test
+    void nestedBackgroundWorkRestoresOuterBinding() {
+        WorkloadRoutingDataSource.bind(Workload.CATALOG);
+
+        Object nested = jobs.run(() -> jobs.run(routing::determineCurrentLookupKey));
+
+        assertThat(nested).isEqualTo(Workload.BACKGROUND);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Workload.CATALOG);
+    }
+
+    private static <T> T advised(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new BackgroundWorkAspect());
+        return factory.getProxy();
+    }
+
+    private static TransactionTemplate readOnly(TransactionTemplate template) {
+        template.setReadOnly(true);
+        return template;
+    }
+
+    static class Jobs {
+
+        @BackgroundWork
+        public Object run(Supplier<Object> work) {
+            return work.get();
+        }
+    }
+
+    // Goes through the real transaction lifecycle, including read-only synchronization, without a connection
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ronak.welcome.config.security;
+
+import com.ronak.welcome.exception.TooManyAttemptsException;
+import com.ronak.welcome.service.impl.LocalBucketStore;
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TotpServiceTests {
+
+    private TotpService totpService;
+    private String secret;
+
+    @BeforeEach
+    void setUp() {
+        totpService = new TotpService(
+                new LocalBucketStore(0, Duration.ofMinutes(10), "totpAttemptBuckets", new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(totpService, "maxAttempts", 3L);
+        ReflectionTestUtils.setField(totpService, "attemptWindowSeconds", 300L);
+        ReflectionTestUtils.setField(totpService, "replayCacheSize", 1000L);
+        totpService.init();
+        secret = totpService.generateNewSecret();
+    }
+
+    private int wrongCode() {
+        return (new GoogleAuthenticator().getTotpPassword(secret) + 1) % 1_000_000;
+    }
+
+    @Test
+    void validCodeIsAcceptedOnceAndItsReplayRejected() {
+        int code = new GoogleAuthenticator().getTotpPassword(secret);
+
+        assertThat(totpService.verifyCode(1L, secret, code)).isTrue();
+        assertThat(totpService.verifyCode(1L, secret, code)).isFalse();
+    }
+
+    @Test
+    void attemptsBeyondTheLimitAreThrottledPerUser() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(totpService.verifyCode(1L, secret, wrongCode())).isFalse();
+        }
+
+        assertThatThrownBy(() -> totpService.verifyCode(1L, secret, wrongCode()))
+                .isInstanceOf(TooManyAttemptsException.class);
+        assertThat(totpService.verifyCode(2L, secret, wrongCode())).isFalse();
+    }
+}
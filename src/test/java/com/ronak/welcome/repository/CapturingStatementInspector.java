@@ -0,0 +1,37 @@
+package com.ronak.welcome.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can inspect the SQL behind a repository call.
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * @return The last SELECT prepared since {@link #clear()}.
+     */
+    public static String lastSelect() {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            if (STATEMENTS.get(i).regionMatches(true, 0, "select", 0, 6)) {
+                return STATEMENTS.get(i);
+            }
+        }
+        throw new IllegalStateException("No SELECT was prepared, statements: " + STATEMENTS);
+    }
+}
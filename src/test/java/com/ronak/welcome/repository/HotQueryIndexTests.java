@@ -0,0 +1,213 @@
+package com.ronak.welcome.repository;
+
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.entity.BookableItem;
+import com.ronak.welcome.enums.BookableItemType;
+import com.ronak.welcome.enums.InteractionType;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.service.impl.BookableItemVisibility;
+import com.ronak.welcome.util.BookableItemSpecifications;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on an embedded PostgreSQL, validates the entity model against them, and checks
+ * that the hottest repository calls are planned on their purpose-built indexes.
+ *
+ * Each test makes the real repository or {@link BookableItemVisibility} call, takes the SQL Hibernate generated
+ * for it from {@link CapturingStatementInspector}, and EXPLAINs that statement with the same parameter values.
+ * The tables hold tens of thousands of rows with realistic selectivity (5% private items, few pending outbox events)
+ * and have been analyzed, so the plans are the planner's own choice rather than forced.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ronak.welcome.repository.CapturingStatementInspector"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(BookableItemVisibility.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryIndexTests {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookableItemRepository bookableItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserInteractionRepository userInteractionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookableItemVisibility visibility;
+
+    // Runs outside the test transactions, so the rows are committed once and no test leaves dead tuples behind
+    @BeforeAll
+    void populateTables() {
+        jdbcTemplate.execute("INSERT INTO users (id, username, email, password, totp_enabled, token_version) " +
+                "SELECT n, 'user' || n, 'user' || n || '@example.com', 'secret', false, 0 " +
+                "FROM generate_series(1, 2000) n");
+        jdbcTemplate.execute("INSERT INTO bookable_items (id, name, location, capacity, price, type, provider_id, " +
+                "is_private, start_time, end_time, created_at, updated_at) " +
+                "SELECT n, 'item ' || n, 'city ' || (n % 100), 50, n % 500, " +
+                "(ARRAY['EVENT', 'APPOINTMENT', 'RESOURCE', 'CLASS', 'SERVICE'])[1 + n % 5], 1 + n % 200, n % 20 = 0, " +
+                "TIMESTAMP '2026-01-01' + n * INTERVAL '30 minutes', TIMESTAMP '2026-01-01' + n * INTERVAL '150 minutes', " +
+                "now(), now() FROM generate_series(1, 20000) n");
+        jdbcTemplate.execute("INSERT INTO bookings (id, user_id, bookable_item_id, status, booking_date, price) " +
+                "SELECT n, 1 + n / 20000, 1 + n % 20000, " +
+                "(ARRAY['CONFIRMED', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'PENDING', 'NO_SHOW'])[1 + n % 6], now(), 10 " +
+                "FROM generate_series(0, 99999) n");
+        jdbcTemplate.execute("INSERT INTO outbox_events (id, event_type, payload, status, retry_count, created_at, updated_at) " +
+                "SELECT n, 'USER_CREATED', '{}', CASE WHEN n % 1000 = 0 THEN 'PENDING' WHEN n % 997 = 0 THEN 'FAILED' " +
+                "ELSE 'COMPLETED' END, 0, now() - n * INTERVAL '1 second', now() FROM generate_series(1, 50000) n");
+        jdbcTemplate.execute("INSERT INTO user_interactions (id, user_id, bookable_item_id, interaction_type, " +
+                "interaction_date, weight) " +
+                "SELECT n, 1 + n % 2000, 1 + n % 20000, " +
+                "(ARRAY['VIEW', 'SEARCH', 'CLICK', 'FAVORITE', 'SHARE', 'REVIEW', 'BOOK', 'CANCEL'])[1 + n % 8], " +
+                "TIMESTAMP '2026-01-01' + n * INTERVAL '1 minute', 1 FROM generate_series(1, 100000) n");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void countActiveByBookableItemUsesItemStatusIndex() {
+        bookingRepository.countActiveByBookableItem(item(123));
+
+        assertThat(planOfLastSelect(123)).contains("idx_bookings_item_status");
+    }
+
+    @Test
+    void countActiveByBookableItemIdsUsesItemStatusIndex() {
+        bookingRepository.countActiveByBookableItemIds(List.of(1L, 2L, 3L));
+
+        assertThat(planOfLastSelect(1, 2, 3)).contains("idx_bookings_item_status");
+    }
+
+    @Test
+    void overlappingBookingsUseItemStatusIndex() {
+        LocalDateTime start = LocalDateTime.of(2026, 2, 1, 0, 0);
+        LocalDateTime end = start.plusHours(2);
+        bookingRepository.findOverlappingBookings(item(123), start, end);
+
+        assertThat(planOfLastSelect(123, end, start, start, end)).contains("idx_bookings_item_status");
+    }
+
+    @Test
+    void publicListingByTypeUsesPartialTypeIndex() {
+        visibility.findVisible(null, BookableItemSpecifications.hasType(BookableItemType.EVENT), Sort.unsorted());
+
+        assertThat(planOfLastSelect("EVENT"))
+                .contains("idx_bookable_items_public_type")
+                .doesNotContain("Seq Scan on bookable_items");
+    }
+
+    @Test
+    void publicSearchByStartTimeUsesPartialStartIndexWithoutSort() {
+        LocalDateTime startDate = LocalDateTime.of(2026, 12, 1, 0, 0);
+        visibility.findVisible(null, BookableItemSpecifications.startsAfter(startDate), Sort.by("startTime"));
+
+        assertThat(planOfLastSelect(startDate))
+                .contains("idx_bookable_items_public_start")
+                .doesNotContain("Sort Key");
+    }
+
+    @Test
+    void ownPrivateItemsUseProviderIndex() {
+        // A price sort is merged in memory, so the viewer's private items are the second, separate query
+        visibility.findVisible(viewer(7), BookableItemSpecifications.hasType(BookableItemType.EVENT), Sort.by("price"));
+
+        assertThat(planOfLastSelect(7, "EVENT")).contains("idx_bookable_items_provider_private");
+    }
+
+    @Test
+    void combinedVisibilityQueryUsesBothIndexes() {
+        // A name sort cannot be merged in memory, so both paths run as one query with an OR predicate
+        visibility.findVisible(viewer(7), BookableItemSpecifications.hasType(BookableItemType.EVENT), Sort.by("name"));
+
+        assertThat(planOfLastSelect(7, "EVENT"))
+                .contains("idx_bookable_items_public_type", "idx_bookable_items_provider_private")
+                .doesNotContain("Seq Scan on bookable_items");
+    }
+
+    @Test
+    void pendingOutboxPollUsesStatusCreatedIndexWithoutSort() {
+        outboxEventRepository.findByStatusAndRetryCountLessThanOrderByCreatedAtAsc("PENDING", 3);
+
+        assertThat(planOfLastSelect("PENDING", 3))
+                .contains("idx_outbox_events_status_created_retry")
+                .doesNotContain("Sort Key");
+    }
+
+    @Test
+    void recentInteractionsUseUserDateIndex() {
+        LocalDateTime since = LocalDateTime.of(2026, 2, 1, 0, 0);
+        userInteractionRepository.findRecentInteractions(userRepository.getReferenceById(5L), since);
+
+        assertThat(planOfLastSelect(5, since)).contains("idx_user_interactions_user_date");
+    }
+
+    @Test
+    void interactionCountByTypeUsesItemTypeIndex() {
+        userInteractionRepository.countInteractionsByType(item(123), InteractionType.VIEW);
+
+        assertThat(planOfLastSelect(123, "VIEW")).contains("idx_user_interactions_item_type");
+    }
+
+    private BookableItem item(long id) {
+        return bookableItemRepository.getReferenceById(id);
+    }
+
+    private static AuthenticatedUser viewer(long id) {
+        return new AuthenticatedUser(id, "user" + id, Set.of(Role.USER));
+    }
+
+    // Prepares the captured SQL with numbered parameters and explains its execution with the given values
+    private String planOfLastSelect(Object... parameters) {
+        AtomicInteger position = new AtomicInteger();
+        String sql = PARAMETER.matcher(CapturingStatementInspector.lastSelect())
+                .replaceAll(match -> Matcher.quoteReplacement("$" + position.incrementAndGet()));
+        assertThat(position.get()).as("parameters of " + sql).isEqualTo(parameters.length);
+
+        jdbcTemplate.execute("DEALLOCATE ALL");
+        jdbcTemplate.execute("PREPARE hot_query AS " + sql);
+        String arguments = parameters.length == 0 ? "" : List.of(parameters).stream()
+                .map(value -> value instanceof Number ? value.toString() : "'" + value + "'")
+                .collect(Collectors.joining(", ", "(", ")"));
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE hot_query" + arguments, String.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ronak.welcome.service;
+
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.exception.InvalidRefreshTokenException;
+import com.ronak.welcome.repository.RefreshTokenRepository;
+import com.ronak.welcome.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not transactional: every service call commits on its own, as it does behind the refresh endpoint
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "application.security.jwt.refresh-token.expiration=600000"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        String name = UUID.randomUUID().toString();
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(Role.USER));
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void replayedTokenRevokesItsReplacement() {
+        String token = refreshTokenService.createRefreshToken(userId);
+        String replacement = refreshTokenService.rotate(token).refreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token)).isInstanceOf(InvalidRefreshTokenException.class);
+
+        assertThat(refreshTokenRepository.findActiveTokenHashesByUserId(userId)).isEmpty();
+        assertThatThrownBy(() -> refreshTokenService.rotate(replacement))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void everyReplayRevokesTokensIssuedSince() {
+        String token = refreshTokenService.createRefreshToken(userId);
+        refreshTokenService.rotate(token);
+        assertThatThrownBy(() -> refreshTokenService.rotate(token)).isInstanceOf(InvalidRefreshTokenException.class);
+
+        String nextLogin = refreshTokenService.createRefreshToken(userId);
+        assertThatThrownBy(() -> refreshTokenService.rotate(token)).isInstanceOf(InvalidRefreshTokenException.class);
+
+        assertThat(refreshTokenRepository.findActiveTokenHashesByUserId(userId)).isEmpty();
+        assertThatThrownBy(() -> refreshTokenService.rotate(nextLogin))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+}
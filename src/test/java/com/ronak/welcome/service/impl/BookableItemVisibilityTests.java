@@ -0,0 +1,115 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.config.security.AuthenticatedUser;
+import com.ronak.welcome.entity.BookableItem;
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.BookableItemType;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.repository.BookableItemRepository;
+import com.ronak.welcome.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(BookableItemVisibility.class)
+class BookableItemVisibilityTests {
+
+    @Autowired
+    private BookableItemVisibility visibility;
+
+    @Autowired
+    private BookableItemRepository bookableItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthenticatedUser viewer;
+
+    @BeforeEach
+    void createItems() {
+        User provider = user("provider");
+        User other = user("other");
+        viewer = new AuthenticatedUser(provider.getId(), provider.getUsername(), Set.of(Role.USER));
+
+        // Mixed case, spaces and punctuation, so Java's String order and the database collation may disagree
+        item("banana split", 30, null, false, other);
+        item("Apple pie", 10, LocalDateTime.of(2030, 1, 2, 0, 0), false, other);
+        item("_under score", 20, LocalDateTime.of(2030, 1, 3, 0, 0), true, provider);
+        item("apple crumble", 40, LocalDateTime.of(2030, 1, 1, 0, 0), true, provider);
+        item("Zucchini", 50, null, true, other);
+        bookableItemRepository.flush();
+    }
+
+    private List<String> databaseOrder(String orderBy) {
+        return jdbcTemplate.queryForList("SELECT name FROM bookable_items WHERE is_private = false OR provider_id = ? "
+                + "ORDER BY " + orderBy, String.class, viewer.getId());
+    }
+
+    private List<String> visibleNames(Sort sort) {
+        return visibility.findVisible(viewer, null, sort).stream().map(BookableItem::getName).toList();
+    }
+
+    @Test
+    void textSortFollowsDatabaseCollation() {
+        assertThat(visibleNames(Sort.by("name"))).containsExactlyElementsOf(databaseOrder("name"));
+        assertThat(visibleNames(Sort.by(Sort.Direction.DESC, "location")))
+                .containsExactlyElementsOf(databaseOrder("location DESC"));
+    }
+
+    @Test
+    void nullableSortFollowsDatabaseNullPlacement() {
+        assertThat(visibleNames(Sort.by("endTime"))).containsExactlyElementsOf(databaseOrder("end_time"));
+        assertThat(visibleNames(Sort.by(Sort.Direction.DESC, "endTime")))
+                .containsExactlyElementsOf(databaseOrder("end_time DESC"));
+    }
+
+    @Test
+    void mergedNumericSortMatchesDatabaseOrder() {
+        assertThat(visibleNames(Sort.by(Sort.Direction.DESC, "price")))
+                .containsExactly("apple crumble", "banana split", "_under score", "Apple pie");
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(Role.USER));
+        return userRepository.save(user);
+    }
+
+    private void item(String name, double price, LocalDateTime endTime, boolean isPrivate, User provider) {
+        BookableItem item = new BookableItem();
+        item.setName(name);
+        item.setLocation(name.toUpperCase());
+        item.setStartTime(LocalDateTime.of(2030, 1, 1, 0, 0));
+        item.setEndTime(endTime);
+        item.setCapacity(10);
+        item.setPrice(price);
+        item.setType(BookableItemType.EVENT);
+        item.setProvider(provider);
+        item.setPrivate(isPrivate);
+        bookableItemRepository.save(item);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.enums.BookingStatus;
+import com.ronak.welcome.events.BookingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingVelocityTrackerTests {
+
+    private static final long ITEM = 1L;
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long T = 1_000_000 * MINUTE;
+
+    private final BookingVelocityTracker tracker = new BookingVelocityTracker();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(tracker, "windowMinutes", 60);
+        ReflectionTestUtils.setField(tracker, "maxTrackedItems", 100L);
+        tracker.init();
+    }
+
+    @Test
+    void bookingsLeaveTheWindowAfterWindowMinutes() {
+        tracker.record(ITEM, 1, T);
+        tracker.record(ITEM, 1, T + MINUTE);
+
+        assertThat(tracker.recentBookings(ITEM, T + 59 * MINUTE)).isEqualTo(2);
+        assertThat(tracker.recentBookings(ITEM, T + 60 * MINUTE)).isEqualTo(1);
+        assertThat(tracker.recentBookings(ITEM, T + 61 * MINUTE)).isZero();
+    }
+
+    @Test
+    void reusedSlotStartsFromZero() {
+        tracker.record(ITEM, 1, T);
+        tracker.record(ITEM, 1, T);
+        tracker.record(ITEM, 1, T + 60 * MINUTE); // Same slot, one window later
+
+        assertThat(tracker.recentBookings(ITEM, T + 60 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void cancellationRemovesABookingStillInTheWindow() {
+        tracker.record(ITEM, 1, T);
+        tracker.record(ITEM, 1, T + 5 * MINUTE);
+
+        tracker.cancel(ITEM, T, T + 10 * MINUTE);
+
+        assertThat(tracker.recentBookings(ITEM, T + 10 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingOldBookingsDoesNotCancelOutFreshDemand() {
+        for (int i = 0; i < 10; i++) {
+            tracker.record(ITEM, 1, T);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.cancel(ITEM, T - Duration.ofDays(30).toMillis(), T + MINUTE);
+        }
+
+        assertThat(tracker.recentBookings(ITEM, T + MINUTE)).isEqualTo(10);
+    }
+
+    @Test
+    void cancellationOfABookingWhoseSlotWasReusedIsIgnored() {
+        tracker.record(ITEM, 1, T);
+        tracker.record(ITEM, 1, T + 60 * MINUTE);
+
+        tracker.cancel(ITEM, T, T + 60 * MINUTE);
+
+        assertThat(tracker.recentBookings(ITEM, T + 60 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void countNeverGoesNegative() {
+        tracker.record(ITEM, 1, T);
+        tracker.cancel(ITEM, T, T);
+        tracker.cancel(ITEM, T, T); // e.g. a booking counted on another node
+
+        assertThat(tracker.recentBookings(ITEM, T)).isZero();
+    }
+
+    @Test
+    void cancelledEventUsesTheBookingTime() {
+        tracker.onBookingChanged(new BookingChangedEvent(ITEM, BookingStatus.CONFIRMED, LocalDateTime.now()));
+        tracker.onBookingChanged(new BookingChangedEvent(ITEM, BookingStatus.CANCELLED,
+                LocalDateTime.now().minusDays(30)));
+
+        assertThat(tracker.recentBookings(ITEM)).isEqualTo(1);
+
+        tracker.onBookingChanged(new BookingChangedEvent(ITEM, BookingStatus.CANCELLED, LocalDateTime.now()));
+
+        assertThat(tracker.recentBookings(ITEM)).isZero();
+    }
+
+    @Test
+    void windowShorterThanOneMinuteIsRejected() {
+        BookingVelocityTracker misconfigured = new BookingVelocityTracker();
+        ReflectionTestUtils.setField(misconfigured, "windowMinutes", 0);
+
+        assertThatThrownBy(misconfigured::init).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ronak.welcome.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronak.welcome.events.BookableItemChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheTests {
+
+    private final CatalogResponseCache cache = new CatalogResponseCache(new ObjectMapper(), new SimpleMeterRegistry());
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "gzipMinBytes", 1024);
+        cache.init();
+    }
+
+    private String respond(Runnable whileComputing) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/items");
+        byte[] body = cache.respond(request, null, List.of(), () -> {
+            whileComputing.run();
+            return List.of("version " + computations.incrementAndGet());
+        }).getBody();
+        return new String(body);
+    }
+
+    @Test
+    void missIsCachedUntilInvalidated() {
+        assertThat(respond(() -> {})).contains("version 1");
+        assertThat(respond(() -> {})).contains("version 1");
+
+        cache.onBookableItemChanged(new BookableItemChangedEvent(1L));
+
+        assertThat(respond(() -> {})).contains("version 2");
+    }
+
+    @Test
+    void bodyComputedAcrossAnInvalidationIsServedButNotCached() {
+        // The body was read before the write committed, and the invalidation ran before it was stored
+        String raced = respond(() -> cache.onBookableItemChanged(new BookableItemChangedEvent(1L)));
+
+        assertThat(raced).contains("version 1");
+        assertThat(respond(() -> {})).contains("version 2");
+        assertThat(respond(() -> {})).contains("version 2");
+    }
+}
@@ -0,0 +1,68 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.entity.City;
+import com.ronak.welcome.entity.Country;
+import com.ronak.welcome.entity.State;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not transactional: cities are resolved outside any caller transaction, as the services do
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(CityServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CityServiceImplTests {
+
+    @Autowired
+    private CityServiceImpl cityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static City city(String city, String state, String country) {
+        Country countryInput = new Country();
+        countryInput.setName(country);
+        State stateInput = new State();
+        stateInput.setName(state);
+        stateInput.setCountry(countryInput);
+        City cityInput = new City();
+        cityInput.setName(city);
+        cityInput.setState(stateInput);
+        return cityInput;
+    }
+
+    @Test
+    void resolvesTheSameCityInAnyLetterCase() {
+        String country = "Country " + UUID.randomUUID();
+        Long created = cityService.resolveCityId(city("Pune", "Maharashtra", country));
+
+        assertThat(cityService.resolveCityId(city(" pune ", "MAHARASHTRA", country.toUpperCase())))
+                .isEqualTo(created);
+    }
+
+    @Test
+    void refusesToResolveInsideTheCallersTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status ->
+                cityService.resolveCityId(city("Pune", "Maharashtra", "Country " + UUID.randomUUID()))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
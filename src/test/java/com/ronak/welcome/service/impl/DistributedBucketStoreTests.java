@@ -0,0 +1,87 @@
+package com.ronak.welcome.service.impl;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistributedBucketStoreTests {
+
+    private static final long CAPACITY = 10;
+
+    private final Supplier<BucketConfiguration> configuration = () -> Bucket4j.configurationBuilder()
+            .addLimit(Bandwidth.classic(CAPACITY, Refill.greedy(1, Duration.ofHours(1))))
+            .build();
+
+    private DistributedBucketStore node(InMemoryBucketProxyManager backend, long maxUnsynchronizedTokens) {
+        return new DistributedBucketStore(backend, maxUnsynchronizedTokens, Duration.ofMinutes(1),
+                1000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+
+    private int consumeUntilRejected(Bucket bucket) {
+        int consumed = 0;
+        while (consumed < 1000 && bucket.tryConsume(1)) {
+            consumed++;
+        }
+        return consumed;
+    }
+
+    @Test
+    void nodesSharingBackendEnforceOneLimit() {
+        InMemoryBucketProxyManager backend = new InMemoryBucketProxyManager();
+        DistributedBucketStore nodeA = node(backend, 0);
+        DistributedBucketStore nodeB = node(backend, 0);
+
+        int consumedByA = consumeUntilRejected(nodeA.resolve("10.0.0.1", configuration));
+        int consumedByB = consumeUntilRejected(nodeB.resolve("10.0.0.1", configuration));
+
+        assertThat(consumedByA + consumedByB).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void delayedSynchronizationOverAdmitsAtMostUnsynchronizedTokensPerNode() {
+        InMemoryBucketProxyManager backend = new InMemoryBucketProxyManager();
+        long maxUnsynchronizedTokens = 3;
+        DistributedBucketStore nodeA = node(backend, maxUnsynchronizedTokens);
+        DistributedBucketStore nodeB = node(backend, maxUnsynchronizedTokens);
+
+        Bucket bucketA = nodeA.resolve("10.0.0.1", configuration);
+        Bucket bucketB = nodeB.resolve("10.0.0.1", configuration);
+        int consumed = 0;
+        for (int i = 0; i < 50; i++) {
+            consumed += bucketA.tryConsume(1) ? 1 : 0;
+            consumed += bucketB.tryConsume(1) ? 1 : 0;
+        }
+
+        assertThat(consumed).isBetween((int) CAPACITY, (int) (CAPACITY + 2 * maxUnsynchronizedTokens));
+    }
+
+    @Test
+    void evictedProxiesKeepTheirStateInTheBackend() {
+        DistributedBucketStore store = new DistributedBucketStore(new InMemoryBucketProxyManager(), 0,
+                Duration.ZERO, 1, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+        assertThat(consumeUntilRejected(store.resolve("10.0.0.1", configuration))).isEqualTo(CAPACITY);
+        for (int i = 2; i < 100; i++) {
+            store.resolve("10.0.0." + i, configuration).tryConsume(1);
+        }
+
+        assertThat(store.resolve("10.0.0.1", configuration).tryConsume(1)).isFalse();
+    }
+
+    @Test
+    void differentClientsGetIndependentBuckets() {
+        DistributedBucketStore store = node(new InMemoryBucketProxyManager(), 0);
+
+        assertThat(consumeUntilRejected(store.resolve("10.0.0.1", configuration))).isEqualTo(CAPACITY);
+        assertThat(consumeUntilRejected(store.resolve("10.0.0.2", configuration))).isEqualTo(CAPACITY);
+    }
+}
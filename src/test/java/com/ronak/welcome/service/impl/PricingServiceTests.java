@@ -0,0 +1,91 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.entity.BookableItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PricingServiceTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final BookingVelocityTracker velocityTracker = mock(BookingVelocityTracker.class);
+
+    private final PricingService pricingService = new PricingService(velocityTracker,
+            Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    private final BookableItem item = new BookableItem();
+
+    @BeforeEach
+    void init() {
+        // The @Value defaults, with surge pricing switched on
+        ReflectionTestUtils.setField(pricingService, "surgeEnabled", true);
+        ReflectionTestUtils.setField(pricingService, "velocitySaturation", 20);
+        ReflectionTestUtils.setField(pricingService, "velocityWeight", 0.25);
+        ReflectionTestUtils.setField(pricingService, "scarcityThreshold", 0.7);
+        ReflectionTestUtils.setField(pricingService, "scarcityWeight", 0.25);
+        ReflectionTestUtils.setField(pricingService, "urgencyHours", 48L);
+        ReflectionTestUtils.setField(pricingService, "urgencyWeight", 0.1);
+        ReflectionTestUtils.setField(pricingService, "maxMultiplier", 1.5);
+
+        item.setId(1L);
+        item.setPrice(100);
+        item.setCapacity(100);
+        item.setStartTime(NOW.plusDays(30));
+    }
+
+    @Test
+    void noDemandKeepsTheBasePrice() {
+        assertThat(pricingService.quote(item, 0)).isEqualTo(100);
+
+        ReflectionTestUtils.setField(pricingService, "surgeEnabled", false);
+        when(velocityTracker.recentBookings(1L)).thenReturn(20);
+        assertThat(pricingService.quote(item, 100)).isEqualTo(100);
+    }
+
+    @Test
+    void velocityScalesUpToSaturation() {
+        when(velocityTracker.recentBookings(1L)).thenReturn(10);
+        assertThat(pricingService.quote(item, 0)).isEqualTo(112.5);
+
+        when(velocityTracker.recentBookings(1L)).thenReturn(40);
+        assertThat(pricingService.quote(item, 0)).isEqualTo(125);
+    }
+
+    @Test
+    void scarcityStartsAtTheThreshold() {
+        assertThat(pricingService.quote(item, 70)).isEqualTo(100);
+        assertThat(pricingService.quote(item, 85)).isEqualTo(112.5);
+        assertThat(pricingService.quote(item, 100)).isEqualTo(125);
+        assertThat(pricingService.quote(item, 150)).isEqualTo(125);
+    }
+
+    @Test
+    void urgencyGrowsInsideTheLastUrgencyHours() {
+        item.setStartTime(NOW.plusHours(48));
+        assertThat(pricingService.quote(item, 0)).isEqualTo(100);
+
+        item.setStartTime(NOW.plusHours(24));
+        assertThat(pricingService.quote(item, 0)).isEqualTo(105);
+
+        item.setStartTime(NOW.minusHours(1)); // Already started
+        assertThat(pricingService.quote(item, 0)).isEqualTo(100);
+    }
+
+    @Test
+    void multiplierIsCapped() {
+        when(velocityTracker.recentBookings(1L)).thenReturn(20);
+        item.setStartTime(NOW);
+
+        // Uncapped this would be 1 + 0.25 + 0.25 + 0.1
+        assertThat(pricingService.quote(item, 100)).isEqualTo(150);
+    }
+}
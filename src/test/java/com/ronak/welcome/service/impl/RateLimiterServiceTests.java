@@ -0,0 +1,71 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.config.RateLimitPolicyProperties;
+import com.ronak.welcome.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterServiceTests {
+
+    private RateLimiterService rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitPolicyProperties policy = new RateLimitPolicyProperties();
+        policy.getTiers().put(Role.USER, tier(2));
+        policy.getTiers().put(Role.ADMIN, tier(5));
+
+        rateLimiter = new RateLimiterService(
+                new LocalBucketStore(1000, Duration.ofMinutes(10), new SimpleMeterRegistry()),
+                policy, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "capacity", 1L);
+        ReflectionTestUtils.setField(rateLimiter, "refillRate", 1L);
+        ReflectionTestUtils.setField(rateLimiter, "durationSeconds", 3600L);
+        ReflectionTestUtils.setField(rateLimiter, "rateLimitEnabled", true);
+        rateLimiter.buildTierConfigurations();
+    }
+
+    private static RateLimitPolicyProperties.Tier tier(long capacity) {
+        RateLimitPolicyProperties.Tier tier = new RateLimitPolicyProperties.Tier();
+        tier.setCapacity(capacity);
+        tier.setRefillRate(1);
+        tier.setDurationSeconds(3600);
+        return tier;
+    }
+
+    private int consumeUntilRejected(String clientKey, Role tier) {
+        int consumed = 0;
+        while (consumed < 100 && rateLimiter.tryConsumeTokens(clientKey, tier, 1)) {
+            consumed++;
+        }
+        return consumed;
+    }
+
+    @Test
+    void eachTierGetsItsOwnLimit() {
+        assertThat(consumeUntilRejected("ip:10.0.0.1", null)).isEqualTo(1);
+        assertThat(consumeUntilRejected("user:alice", Role.USER)).isEqualTo(2);
+        assertThat(consumeUntilRejected("user:bob", Role.ADMIN)).isEqualTo(5);
+    }
+
+    @Test
+    void promotedUserGetsTheNewTiersLimitsImmediately() {
+        assertThat(consumeUntilRejected("user:alice", Role.USER)).isEqualTo(2);
+
+        assertThat(consumeUntilRejected("user:alice", Role.ADMIN)).isEqualTo(5);
+    }
+
+    @Test
+    void demotedUserGetsTheNewTiersLimitsImmediately() {
+        assertThat(rateLimiter.tryConsumeTokens("user:alice", Role.ADMIN, 1)).isTrue();
+
+        assertThat(consumeUntilRejected("user:alice", Role.USER)).isEqualTo(2);
+        assertThat(consumeUntilRejected("user:alice", Role.USER)).isZero();
+    }
+}
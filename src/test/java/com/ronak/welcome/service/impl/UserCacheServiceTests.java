@@ -0,0 +1,66 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.events.UserChangedEvent;
+import com.ronak.welcome.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserCacheServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserCacheService cache = new UserCacheService(userRepository, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        cache.init();
+    }
+
+    private static User user(String passwordHash) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPassword(passwordHash);
+        user.setRoles(Set.of(Role.USER));
+        return user;
+    }
+
+    @Test
+    void lookupIsCachedUntilTheUserChanges() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("old")), Optional.of(user("new")));
+
+        assertThat(cache.findByUsername("alice")).get().extracting("password").isEqualTo("old");
+        assertThat(cache.findByUsername("alice")).get().extracting("password").isEqualTo("old");
+
+        cache.onUserChanged(new UserChangedEvent(1L, "alice", "alice@example.com"));
+
+        assertThat(cache.findByUsername("alice")).get().extracting("password").isEqualTo("new");
+    }
+
+    @Test
+    void rowLoadedBeforeAnEvictionIsNotCached() {
+        // The old row is read, then the password change commits and evicts before the lookup stores it
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            cache.onUserChanged(new UserChangedEvent(1L, "alice", "alice@example.com"));
+            return Optional.of(user("old"));
+        }).thenReturn(Optional.of(user("new")));
+
+        assertThat(cache.findByUsername("alice")).get().extracting("password").isEqualTo("old");
+        assertThat(cache.findByUsername("alice")).get().extracting("password").isEqualTo("new");
+        assertThat(cache.findByUsernameOrEmail("alice@example.com")).get().extracting("password").isEqualTo("new");
+    }
+}
@@ -0,0 +1,183 @@
+package com.ronak.welcome.service.impl;
+
+import com.ronak.welcome.DTO.UserImportResult;
+import com.ronak.welcome.entity.Address;
+import com.ronak.welcome.entity.User;
+import com.ronak.welcome.enums.Role;
+import com.ronak.welcome.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+// Not transactional: every chunk commits on its own, as it does behind the import endpoint
+@DataJpaTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "app.users.import.chunk-size=2"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import({UserImportService.class, CityServiceImpl.class, UserImportServiceTests.Encoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTests {
+
+    @TestConfiguration
+    static class Encoder {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private CityServiceImpl cityService;
+
+    // Unique per test, since imported rows commit and outlive the test
+    private String prefix;
+
+    @BeforeEach
+    void prefix() {
+        prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+    }
+
+    private UserImportResult importCsv(String... lines) throws IOException {
+        return importService.importUsers(upload(String.join("\n", lines)), true);
+    }
+
+    private UserImportResult importNdjson(String... usernames) throws IOException {
+        StringBuilder upload = new StringBuilder();
+        for (String username : usernames) {
+            upload.append("{\"username\":\"").append(prefix).append(username)
+                    .append("\",\"email\":\"").append(prefix).append(username)
+                    .append("@example.com\",\"password\":\"secret\"}\n");
+        }
+        return importService.importUsers(upload(upload.toString()), false);
+    }
+
+    private static ByteArrayInputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Address addressOf(String username) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Address address = userRepository.findByUsername(username).orElseThrow().getAddresses().get(0);
+            address.getCity().getName();
+            return address;
+        });
+    }
+
+    @Test
+    void csvFieldsMayBeQuoted() throws IOException {
+        UserImportResult result = importCsv(
+                "username,email,password,roles,street,zipCode,addressType,city,state,country",
+                prefix + "ann," + prefix + "ann@example.com,\"pa,ss\"\"word\",user;event_organizer,"
+                        + "\"1 Main St, \"\"Apt 2\"\"\",411001,HOME,Pune,Maharashtra,India");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).isEmpty();
+        User ann = userRepository.findByUsername(prefix + "ann").orElseThrow();
+        assertThat(ann.getRoles()).containsExactlyInAnyOrder(Role.USER, Role.EVENT_ORGANIZER);
+        Address address = addressOf(prefix + "ann");
+        assertThat(address.getStreet()).isEqualTo("1 Main St, \"Apt 2\"");
+        assertThat(address.getCity().getName()).isEqualTo("Pune");
+    }
+
+    @Test
+    void invalidRowsAreReportedAndSkipped() throws IOException {
+        UserImportResult result = importCsv(
+                "username,email,password,city",
+                prefix + "ok," + prefix + "ok@example.com,secret,",
+                prefix + "noemail,,secret,",
+                prefix + "nopassword," + prefix + "nopassword@example.com,,",
+                prefix + "nostate," + prefix + "nostate@example.com,secret,Pune");
+
+        assertThat(result.processed()).isEqualTo(4);
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting("row", "message").containsExactly(
+                tuple(2L, "A valid email is required"),
+                tuple(3L, "Password is required"),
+                tuple(4L, "Address requires city, state and country"));
+    }
+
+    @Test
+    void duplicatesAreCaughtWithinAndAcrossChunks() throws IOException {
+        // Chunks of two: [a, b] [c, a]; the second "a" is in the same chunk as the first one's duplicate
+        UserImportResult result = importNdjson("a", "a", "b", "c", "a");
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.errors()).extracting("row", "message").containsExactly(
+                tuple(2L, "Duplicate username in upload"),
+                tuple(5L, "Username already exists"));
+    }
+
+    @Test
+    void existingUsersAreSkipped() throws IOException {
+        User existing = new User();
+        existing.setUsername(prefix + "taken");
+        existing.setEmail(prefix + "taken@example.com");
+        existing.setPassword("secret");
+        existing.setRoles(Set.of(Role.USER));
+        userRepository.save(existing);
+
+        UserImportResult result = importNdjson("taken", "free");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting("username", "message")
+                .containsExactly(tuple(prefix + "taken", "Username already exists"));
+    }
+
+    @Test
+    void failedChunkIsReportedAndLaterChunksStillRun() throws IOException {
+        doThrow(new IllegalStateException("geography unavailable"))
+                .when(cityService).resolveCityId(argThat(city -> "Atlantis".equals(city.getName())));
+
+        UserImportResult result = importCsv(
+                "username,email,password,city,state,country",
+                prefix + "a," + prefix + "a@example.com,secret,Atlantis,Sea,Ocean",
+                prefix + "b," + prefix + "b@example.com,secret,,,",
+                prefix + "c," + prefix + "c@example.com,secret,,,");
+
+        assertThat(result.processed()).isEqualTo(3);
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).extracting("row", "message").containsExactly(
+                tuple(1L, "Import of this chunk failed: geography unavailable"),
+                tuple(2L, "Import of this chunk failed: geography unavailable"));
+        assertThat(userRepository.findByUsername(prefix + "b")).isEmpty();
+        assertThat(userRepository.findByUsername(prefix + "c")).isPresent();
+    }
+}
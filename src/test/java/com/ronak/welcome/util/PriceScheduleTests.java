@@ -0,0 +1,77 @@
+package com.ronak.welcome.util;
+
+import com.ronak.welcome.DTO.PriceTier;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceScheduleTests {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime JAN_10 = LocalDateTime.of(2030, 1, 10, 0, 0);
+    private static final LocalDateTime JAN_20 = LocalDateTime.of(2030, 1, 20, 0, 0);
+
+    private final PriceSchedule schedule = PriceSchedule.compile(List.of(
+            new PriceTier("late", 80, JAN_10, JAN_20, 0, 100),
+            new PriceTier("early bird", 50, JAN_1, JAN_10, 0, 10),
+            new PriceTier("early", 60, JAN_1, JAN_10, 0, 20)), 100);
+
+    private double priceAt(LocalDateTime time, long bookings) {
+        return schedule.priceAt(PriceSchedule.toLocalMillis(time), bookings);
+    }
+
+    @Test
+    void firstTierByStartDateThenMaxQuantityWins() {
+        assertThat(priceAt(JAN_1.plusDays(2), 0)).isEqualTo(50);
+        assertThat(priceAt(JAN_1.plusDays(2), 9)).isEqualTo(50);
+        assertThat(priceAt(JAN_1.plusDays(2), 10)).isEqualTo(60);
+        assertThat(priceAt(JAN_1.plusDays(2), 20)).isEqualTo(100);
+    }
+
+    @Test
+    void tierBoundsAreInclusive() {
+        assertThat(priceAt(JAN_1, 0)).isEqualTo(50);
+        // JAN_10 is the end of the early tiers and the start of the late one; the early tiers sort first
+        assertThat(priceAt(JAN_10, 0)).isEqualTo(50);
+        assertThat(priceAt(JAN_10.plusSeconds(1), 0)).isEqualTo(80);
+        assertThat(priceAt(JAN_20, 99)).isEqualTo(80);
+    }
+
+    @Test
+    void outsideAllTiersUsesBasePrice() {
+        assertThat(priceAt(JAN_1.minusSeconds(1), 0)).isEqualTo(100);
+        assertThat(priceAt(JAN_20.plusSeconds(1), 0)).isEqualTo(100);
+        assertThat(priceAt(JAN_10.plusDays(1), 100)).isEqualTo(100);
+    }
+
+    @Test
+    void clockIsReadAsLocalTime() {
+        Clock clock = Clock.fixed(JAN_10.plusDays(1).toInstant(ZoneOffset.ofHours(5)), ZoneOffset.ofHours(5));
+        assertThat(schedule.priceAt(clock, 0)).isEqualTo(80);
+    }
+
+    @Test
+    void noTiersCompileToEmptySchedule() {
+        PriceSchedule empty = PriceSchedule.compile(null, 42);
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(empty.priceAt(Clock.systemDefaultZone(), 5)).isEqualTo(42);
+    }
+
+    @Test
+    void equalTierListsShareOneCompiledSchedule() {
+        // As two sessions loading the same item would see it: equal lists, different instances
+        List<PriceTier> loaded = List.of(new PriceTier("late", 80, JAN_10, JAN_20, 0, 100));
+        List<PriceTier> loadedAgain = List.of(new PriceTier("late", 80, JAN_10, JAN_20, 0, 100));
+
+        PriceSchedule first = PriceSchedule.of(loaded, 100);
+
+        assertThat(PriceSchedule.of(loadedAgain, 100)).isSameAs(first);
+        assertThat(PriceSchedule.of(loadedAgain, 90)).isNotSameAs(first);
+        assertThat(PriceSchedule.of(loadedAgain, 90).priceAt(PriceSchedule.toLocalMillis(JAN_1), 0)).isEqualTo(90);
+    }
+}
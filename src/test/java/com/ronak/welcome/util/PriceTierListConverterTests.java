@@ -0,0 +1,44 @@
+package com.ronak.welcome.util;
+
+import com.ronak.welcome.DTO.PriceTier;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceTierListConverterTests {
+
+    private final PriceTierListConverter converter = new PriceTierListConverter();
+
+    private final List<PriceTier> tiers = List.of(
+            new PriceTier("early bird", 49.5, LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 10, 23, 59, 59, 999_000_000), 0, 10),
+            new PriceTier("Grüße", 80, LocalDateTime.of(2030, 1, 11, 0, 0), LocalDateTime.of(2030, 1, 20, 0, 0), 10, 100));
+
+    @Test
+    void binaryFormatRoundTrips() {
+        String column = converter.convertToDatabaseColumn(tiers);
+        assertThat(column).startsWith("b1:");
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(tiers);
+    }
+
+    @Test
+    void legacyJsonIsStillRead() {
+        String legacy = new JsonListConverter().convertToDatabaseColumn(tiers);
+        assertThat(converter.convertToEntityAttribute(legacy)).isEqualTo(tiers);
+    }
+
+    @Test
+    void sameColumnValueDecodesOnce() {
+        String column = converter.convertToDatabaseColumn(tiers);
+        assertThat(converter.convertToEntityAttribute(column)).isSameAs(converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void nullAndEmptyMapToNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToEntityAttribute("")).isNull();
+    }
+}
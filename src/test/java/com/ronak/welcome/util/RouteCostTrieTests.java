@@ -0,0 +1,47 @@
+package com.ronak.welcome.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteCostTrieTests {
+
+    private final RouteCostTrie trie = new RouteCostTrie(routes(), 1);
+
+    private static Map<String, Integer> routes() {
+        Map<String, Integer> routes = new LinkedHashMap<>();
+        routes.put("/api/v1/items/search", 5);
+        routes.put("/api/v1/items/{id}", 2);
+        routes.put("/api/v1/auth/**", 3);
+        routes.put("/actuator/**", 0);
+        return routes;
+    }
+
+    @Test
+    void literalSegmentWinsOverWildcard() {
+        assertThat(trie.costFor("/api/v1/items/search")).isEqualTo(5);
+        assertThat(trie.costFor("/api/v1/items/42")).isEqualTo(2);
+    }
+
+    @Test
+    void doubleWildcardMatchesPrefixAndDescendants() {
+        assertThat(trie.costFor("/actuator")).isEqualTo(0);
+        assertThat(trie.costFor("/actuator/health")).isEqualTo(0);
+        assertThat(trie.costFor("/api/v1/auth/totp/register")).isEqualTo(3);
+    }
+
+    @Test
+    void unmatchedPathsUseDefaultCost() {
+        assertThat(trie.costFor("/api/v1/bookings/me")).isEqualTo(1);
+        assertThat(trie.costFor("/api/v1/items/42/extra")).isEqualTo(1);
+        assertThat(trie.costFor("/")).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedAndTrailingSlashesAreIgnored() {
+        assertThat(trie.costFor("/api//v1/items/search/")).isEqualTo(5);
+    }
+}